@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# Startup benchmark: time from launch to the first accepted POST /api/create, and resident memory at that point.
+#
+#   ./mvnw -Pnative,cds -DskipTests package      # AOT jar + AppCDS archive (jvm, aot, cds variants)
+#   ./mvnw -Pnative -DskipTests native:compile   # optional, needs GraalVM (native variant)
+#   scripts/startup-benchmark.sh [runs]
+#
+# Variants whose artifacts are missing are skipped. Each run uses a throwaway history file and no analytics.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+# Whatever version the pom built; an unmatched glob stays literal and the variant is skipped
+jar_in() { local f; for f in "$1"/Lootanant-*.jar; do echo "$f"; return; done; }
+JAR=$(jar_in target)
+CDS_JAR=$(jar_in target/cds)
+NATIVE=target/Lootanant
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+now_ms() { date +%s%3N; }
+
+# Prints "<ms> <rss-kb>" for one launch of the given command
+measure() {
+  local start pid code
+  start=$(now_ms)
+  "$@" --server.port="$PORT" --lootanant.history.file="$WORK/history.ndjson" \
+       --lootanant.analytics.enabled=false >"$WORK/app.log" 2>&1 &
+  pid=$!
+  while true; do
+    code=$(curl -s -o /dev/null -w '%{http_code}' -X POST "http://localhost:$PORT/api/create" \
+           -H 'Content-Type: application/json' -d '{"name":"bench"}' || true)
+    [ "$code" = "200" ] && break
+    if ! kill -0 "$pid" 2>/dev/null; then echo "startup failed, see log:" >&2; tail -20 "$WORK/app.log" >&2; exit 1; fi
+    sleep 0.02
+  done
+  echo "$(( $(now_ms) - start )) $(ps -o rss= -p "$pid" | tr -d ' ')"
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+}
+
+# Median of the first column and of the second column over RUNS launches
+bench() {
+  local name=$1; shift
+  local samples=()
+  for _ in $(seq "$RUNS"); do samples+=("$(measure "$@")"); done
+  local ms rss
+  ms=$(printf '%s\n' "${samples[@]}" | awk '{print $1}' | sort -n | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}')
+  rss=$(printf '%s\n' "${samples[@]}" | awk '{print $2}' | sort -n | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}')
+  printf '| %-6s | %8s | %8s |\n' "$name" "$ms" "$(( rss / 1024 ))"
+}
+
+echo "| variant | first /api/create (ms) | RSS (MB) |"
+echo "|---------|------------------------|----------|"
+[ -f "$JAR" ] && bench jvm "$JAVA" -jar "$JAR"
+if [ -f "$JAR" ] && unzip -l "$JAR" | grep -q '__BeanFactoryRegistrations'; then
+  bench aot "$JAVA" -Dspring.aot.enabled=true -jar "$JAR"
+fi
+if [ -f target/cds/application.jsa ]; then
+  bench cds "$JAVA" -XX:SharedArchiveFile=target/cds/application.jsa -Xlog:cds=off -Dspring.aot.enabled=true -jar "$CDS_JAR"
+fi
+[ -x "$NATIVE" ] && bench native "$NATIVE"
+exit 0
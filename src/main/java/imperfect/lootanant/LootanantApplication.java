@@ -1,9 +1,20 @@
 package imperfect.lootanant;
 
+import imperfect.lootanant.model.ChatMessage;
+import imperfect.lootanant.model.GameEvent;
+import imperfect.lootanant.model.MatchRecord;
+import imperfect.lootanant.model.RoomSummary;
+import imperfect.lootanant.service.LeaderboardIndex;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+// Records Jackson reads or writes behind Object/ResponseEntity<?>, which AOT cannot infer for native images
+@RegisterReflectionForBinding({MatchRecord.class, MatchRecord.PlayerResult.class, GameEvent.class,
+        GameEvent.Derived.class, ChatMessage.class, RoomSummary.class, LeaderboardIndex.Standing.class})
 public class LootanantApplication {
     public static void main(String[] args) {
         SpringApplication.run(LootanantApplication.class, args);
@@ -0,0 +1,29 @@
+package imperfect.lootanant.config;
+
+import imperfect.lootanant.model.Pacing;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// lootanant.pacing.profiles.<name>.<timing>=<duration>
+@ConfigurationProperties("lootanant.pacing")
+public class PacingProperties {
+
+    public static final String DEFAULT_PROFILE = "standard";
+
+    private final Map<String, Pacing> profiles = new LinkedHashMap<>();
+
+    public Map<String, Pacing> getProfiles() {
+        return profiles;
+    }
+
+    /** Looks a profile up by name; unknown or missing names get the standard profile. */
+    public Pacing resolve(String name) {
+        String key = name == null ? DEFAULT_PROFILE : name.toLowerCase(Locale.ROOT);
+        if (!profiles.containsKey(key)) key = DEFAULT_PROFILE;
+        Pacing pacing = profiles.get(key);
+        return pacing == null ? Pacing.STANDARD : pacing.withDefaults(key, Pacing.STANDARD);
+    }
+}
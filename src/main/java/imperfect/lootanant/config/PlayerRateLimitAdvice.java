@@ -0,0 +1,72 @@
+package imperfect.lootanant.config;
+
+import imperfect.lootanant.controller.GameController;
+import imperfect.lootanant.service.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * Fallback per-player limit for game commands, keyed on the playerId/hostId in the request
+ * body: the same ID the command acts as. Most requests were already charged before parsing
+ * by {@link RateLimitInterceptor} from the X-Player-Id header; the body ID is charged only
+ * when that header was missing or named someone else, so dropping or forging it saves nothing.
+ */
+@ControllerAdvice(assignableTypes = GameController.class)
+public class PlayerRateLimitAdvice extends RequestBodyAdviceAdapter {
+
+    private final RateLimiter rateLimiter;
+
+    public PlayerRateLimitAdvice(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean supports(MethodParameter parameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return Map.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        Map<?, ?> fields = (Map<?, ?>) body;
+        Object id = fields.get("playerId") != null ? fields.get("playerId") : fields.get("hostId");
+        if (!(id instanceof String playerId)) return body;
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        if (playerId.equals(request.getAttribute(RateLimitInterceptor.CHARGED_PLAYER))) return body;
+        long wait = rateLimiter.acquire(RateLimiter.Scope.PLAYER, playerId, RateLimitInterceptor.endpointName(request));
+        if (wait > 0) throw new RateLimitedException(wait);
+        return body;
+    }
+
+    @ExceptionHandler(RateLimitedException.class)
+    public ResponseEntity<String> rejected(RateLimitedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(RateLimiter.retryAfterSeconds(e.waitNanos)))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(RateLimitInterceptor.REJECTED_BODY);
+    }
+
+    static class RateLimitedException extends RuntimeException {
+        final long waitNanos;
+
+        RateLimitedException(long waitNanos) {
+            super(null, null, false, false);
+            this.waitNanos = waitNanos;
+        }
+    }
+}
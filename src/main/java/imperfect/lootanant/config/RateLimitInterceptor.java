@@ -0,0 +1,63 @@
+package imperfect.lootanant.config;
+
+import imperfect.lootanant.service.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+// Runs before argument resolution, so rejected requests never have their body parsed.
+// The player comes from the path or the X-Player-Id header; PlayerRateLimitAdvice charges
+// the body's ID as well when it is missing here or names someone else.
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    static final String REJECTED_BODY = "{\"error\":\"Too many requests\"}";
+    static final String PLAYER_HEADER = "X-Player-Id";
+    // The player ID already charged for this request, if any
+    static final String CHARGED_PLAYER = RateLimitInterceptor.class.getName() + ".chargedPlayer";
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        String endpoint = endpointName(request);
+        long wait = rateLimiter.acquire(RateLimiter.Scope.IP, request.getRemoteAddr(), endpoint);
+        if (wait == 0) {
+            String playerId = pathPlayerId(request);
+            if (playerId == null) playerId = request.getHeader(PLAYER_HEADER);
+            wait = rateLimiter.acquire(RateLimiter.Scope.PLAYER, playerId, endpoint);
+            if (playerId != null) request.setAttribute(CHARGED_PLAYER, playerId);
+        }
+        if (wait > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(RateLimiter.retryAfterSeconds(wait)));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(REJECTED_BODY);
+            return false;
+        }
+        return true;
+    }
+
+    // GET routes name the player in the path; POST routes carry it in the header and the body
+    @SuppressWarnings("unchecked")
+    private String pathPlayerId(HttpServletRequest request) {
+        Map<String, String> vars = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return vars != null ? vars.get("playerId") : null;
+    }
+
+    // Metric tag: the mapped pattern keeps the tag set bounded (no room codes or IDs)
+    static String endpointName(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "unmapped";
+    }
+}
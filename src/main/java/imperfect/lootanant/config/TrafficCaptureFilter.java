@@ -0,0 +1,71 @@
+package imperfect.lootanant.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import imperfect.lootanant.service.TrafficCaptureService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Feeds game API calls to TrafficCaptureService; a pass-through unless lootanant.capture.enabled is set
+@Component
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {};
+
+    private final TrafficCaptureService capture;
+    private final ObjectMapper objectMapper;
+
+    public TrafficCaptureFilter(TrafficCaptureService capture, ObjectMapper objectMapper) {
+        this.capture = capture;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !capture.isEnabled() || !path.startsWith("/api/") || path.startsWith("/api/admin/");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingRequestWrapper req = new ContentCachingRequestWrapper(request);
+        // Only POST responses carry IDs the replayer has to learn; GET bodies (state, lobby) stream through
+        boolean post = "POST".equals(request.getMethod());
+        ContentCachingResponseWrapper res = post ? new ContentCachingResponseWrapper(response) : null;
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(req, post ? res : response);
+        } finally {
+            long duration = System.nanoTime() - start;
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                capture.recordHttp(request.getMethod(), pattern.toString(),
+                        (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE),
+                        parse(req.getContentAsByteArray()), post ? res.getStatus() : response.getStatus(),
+                        post ? parse(res.getContentAsByteArray()) : null, duration);
+            }
+            if (post) res.copyBodyToResponse();
+        }
+    }
+
+    private Map<String, Object> parse(byte[] json) {
+        if (json.length == 0) return null;
+        try {
+            return objectMapper.readValue(json, JSON_OBJECT);
+        } catch (IOException e) {
+            return null; // arrays (lobby lists) and non-JSON bodies carry nothing to alias
+        }
+    }
+}
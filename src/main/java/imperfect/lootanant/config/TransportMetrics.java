@@ -0,0 +1,69 @@
+package imperfect.lootanant.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.sockjs.transport.session.PollingSockJsSession;
+import org.springframework.web.socket.sockjs.transport.session.StreamingSockJsSession;
+import org.springframework.web.socket.sockjs.transport.session.WebSocketServerSockJsSession;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits STOMP sessions by transport: native WebSocket on /stomp, and the
+ * SockJS fallback on /ws broken down by how SockJS ended up connecting.
+ * Exposes lootanant.ws.sessions (open now) and lootanant.ws.sessions.opened,
+ * both tagged by transport.
+ */
+@Component
+public class TransportMetrics implements WebSocketHandlerDecoratorFactory {
+
+    public enum Transport { WEBSOCKET, SOCKJS_WEBSOCKET, SOCKJS_STREAMING, SOCKJS_POLLING }
+
+    private final Map<Transport, AtomicInteger> open = new EnumMap<>(Transport.class);
+    private final Map<Transport, Counter> opened = new EnumMap<>(Transport.class);
+
+    public TransportMetrics(MeterRegistry meterRegistry) {
+        for (Transport t : Transport.values()) {
+            String tag = t.name().toLowerCase().replace('_', '-');
+            AtomicInteger count = new AtomicInteger();
+            Gauge.builder("lootanant.ws.sessions", count, AtomicInteger::get).tag("transport", tag).register(meterRegistry);
+            open.put(t, count);
+            opened.put(t, Counter.builder("lootanant.ws.sessions.opened").tag("transport", tag).register(meterRegistry));
+        }
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                Transport t = transportOf(session);
+                open.get(t).incrementAndGet();
+                opened.get(t).increment();
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                open.get(transportOf(session)).decrementAndGet();
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private static Transport transportOf(WebSocketSession session) {
+        if (session instanceof WebSocketServerSockJsSession) return Transport.SOCKJS_WEBSOCKET;
+        if (session instanceof StreamingSockJsSession) return Transport.SOCKJS_STREAMING;
+        if (session instanceof PollingSockJsSession) return Transport.SOCKJS_POLLING;
+        return Transport.WEBSOCKET;
+    }
+}
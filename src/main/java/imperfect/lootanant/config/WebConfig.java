@@ -0,0 +1,63 @@
+package imperfect.lootanant.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final RateLimitInterceptor rateLimitInterceptor;
+    // Classpath resources don't change while the node runs, so each one is hashed once
+    private final Map<String, String> etags = new ConcurrentHashMap<>();
+
+    public WebConfig(RateLimitInterceptor rateLimitInterceptor) {
+        this.rateLimitInterceptor = rateLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/api/**");
+    }
+
+    // Fingerprinted assets (app.<hash>.js, see the antrun step in pom.xml) never change under their name.
+    // The entry document and unhashed names are revalidated on every visit, by ETag.
+    // All of them are served from the precompressed .br/.gz files when the client accepts them.
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        CacheControl immutable = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+        serve(registry, "classpath:/static/assets/", immutable, "/assets/{file:[a-z-]+\\.[0-9a-f]+\\.(?:css|js)}");
+        serve(registry, "classpath:/static/assets/", CacheControl.noCache(), "/assets/**");
+        serve(registry, "classpath:/static/", CacheControl.noCache(), "/*.html");
+    }
+
+    private void serve(ResourceHandlerRegistry registry, String location, CacheControl cacheControl, String pattern) {
+        registry.addResourceHandler(pattern)
+                .addResourceLocations(location)
+                .setCacheControl(cacheControl)
+                .setEtagGenerator(this::etag)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+    }
+
+    private String etag(Resource resource) {
+        return etags.computeIfAbsent(resource.getDescription(), key -> {
+            try (InputStream in = resource.getInputStream()) {
+                return DigestUtils.md5DigestAsHex(in);
+            } catch (IOException e) {
+                return null;
+            }
+        });
+    }
+}
@@ -1,23 +1,140 @@
 package imperfect.lootanant.config;
 
+import imperfect.lootanant.service.RateLimiter;
+import imperfect.lootanant.service.RoomCostService;
+import imperfect.lootanant.service.TrafficCaptureService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final long HEARTBEAT_MS = 10000;
+    private final RateLimiter rateLimiter;
+    private final TransportMetrics transportMetrics;
+    private final TrafficCaptureService capture;
+    private final RoomCostService roomCosts;
+    private final int sendBufferSizeLimit;
+    private final int sendTimeLimitMs;
+    private final int messageSizeLimit;
+
+    public WebSocketConfig(RateLimiter rateLimiter, TransportMetrics transportMetrics, TrafficCaptureService capture,
+                           @Lazy RoomCostService roomCosts,
+                           @Value("${lootanant.ws.send-buffer-size-limit:262144}") int sendBufferSizeLimit,
+                           @Value("${lootanant.ws.send-time-limit-ms:10000}") int sendTimeLimitMs,
+                           @Value("${lootanant.ws.message-size-limit:16384}") int messageSizeLimit) {
+        this.rateLimiter = rateLimiter;
+        this.transportMetrics = transportMetrics;
+        this.capture = capture;
+        this.roomCosts = roomCosts;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.messageSizeLimit = messageSizeLimit;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        // Heartbeats let the broker notice dead connections (closed tabs, dropped mobiles),
+        // which PresenceService turns into an immediate disconnect
+        config.enableSimpleBroker("/topic")
+                .setHeartbeatValue(new long[]{HEARTBEAT_MS, HEARTBEAT_MS})
+                .setTaskScheduler(heartbeatScheduler());
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    private TaskScheduler heartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ws-heartbeat-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // Native WebSocket is the primary transport; SockJS stays on /ws for clients that cannot upgrade
+        registry.addEndpoint("/stomp").setAllowedOriginPatterns("*");
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS();
     }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // A client that cannot drain its buffer within the limits is dropped instead of holding broadcasts back
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMs)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(transportMetrics);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Same buckets as the REST path: drop SEND frames from sessions over their rate
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (accessor == null || accessor.getCommand() != StompCommand.SEND) return message;
+                return rateLimiter.tryAcquire(RateLimiter.Scope.SESSION, accessor.getSessionId(), "stomp") ? message : null;
+            }
+        });
+        if (capture.isEnabled()) {
+            registration.interceptors(new ChannelInterceptor() {
+                @Override
+                public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+                    StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                    if (accessor == null || !sent) return;
+                    if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+                        capture.recordSubscribe(accessor.getSessionId(), accessor.getDestination());
+                    } else if (accessor.getCommand() == StompCommand.DISCONNECT) {
+                        capture.recordDisconnect(accessor.getSessionId());
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Every delivered room frame is charged to its room, one per subscriber session
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                if (destination != null && message.getPayload() instanceof byte[] payload) {
+                    roomCosts.frameSent(destination, payload.length);
+                }
+                return message;
+            }
+        });
+        // Matchmaking hands out room and player IDs over STOMP; the replayer needs them to follow the player
+        if (!capture.isEnabled()) return;
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                if (destination != null && destination.startsWith("/topic/matchmaking/")
+                        && message.getPayload() instanceof byte[] payload) {
+                    capture.recordPush(destination, payload);
+                }
+                return message;
+            }
+        });
+    }
 }
@@ -0,0 +1,95 @@
+package imperfect.lootanant.controller;
+
+import imperfect.lootanant.model.GameRoom;
+import imperfect.lootanant.service.ObserverService;
+import imperfect.lootanant.service.RoomCostService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Operator endpoints; disabled unless lootanant.admin.token is set
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private static final long TICKET_TTL_SECONDS = 30;
+
+    private final ObserverService observerService;
+    private final RoomCostService roomCostService;
+    private final byte[] adminToken;
+    // Single-use observe tickets -> expiry (System.nanoTime)
+    private final Map<String, Long> tickets = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    public AdminController(ObserverService observerService, RoomCostService roomCostService,
+                           @Value("${lootanant.admin.token:}") String adminToken) {
+        this.observerService = observerService;
+        this.roomCostService = roomCostService;
+        this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Header only: a token in the query string would end up in access logs and proxy logs
+    private boolean authorized(String header) {
+        return adminToken.length > 0 && header != null
+                && MessageDigest.isEqual(adminToken, header.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // EventSource cannot send headers, so browsers trade the token for a ticket that is
+    // short-lived and single-use; whatever logs the URL only ever sees a spent ticket
+    private boolean redeem(String ticket) {
+        if (ticket == null) return false;
+        Long expires = tickets.remove(ticket);
+        return expires != null && expires - System.nanoTime() > 0;
+    }
+
+    /** A single-use ticket for {@code /observe?ticket=}, valid for 30 seconds. */
+    @PostMapping("/observe/ticket")
+    public ResponseEntity<?> observeTicket(@RequestHeader(value = "X-Admin-Token", required = false) String header) {
+        if (!authorized(header)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        long now = System.nanoTime();
+        tickets.values().removeIf(expires -> expires - now <= 0);
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, now + TimeUnit.SECONDS.toNanos(TICKET_TTL_SECONDS));
+        return ResponseEntity.ok(Map.of("ticket", ticket, "expiresInSeconds", TICKET_TTL_SECONDS));
+    }
+
+    /** SSE: one "snapshot" event, then a "diff" per sampling tick with changed rooms and removed codes. */
+    @GetMapping(value = "/observe", produces = "text/event-stream")
+    public ResponseEntity<SseEmitter> observe(@RequestHeader(value = "X-Admin-Token", required = false) String header,
+                                              @RequestParam(required = false) String ticket,
+                                              @RequestParam(required = false) String mode,
+                                              @RequestParam(required = false) String tag) {
+        if (!authorized(header) && !redeem(ticket)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        if (tag != null && GameRoom.normalizeTag(tag) == null) return ResponseEntity.badRequest().build();
+        SseEmitter emitter = observerService.open(mode, tag);
+        if (emitter == null) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        return ResponseEntity.ok(emitter);
+    }
+
+    /** The most expensive rooms over the last minute, by lock time, commands, tasks, frames or bytes. */
+    @GetMapping("/rooms/top")
+    public ResponseEntity<?> topRooms(@RequestHeader(value = "X-Admin-Token", required = false) String header,
+                                      @RequestParam(defaultValue = "10") int n,
+                                      @RequestParam(defaultValue = "lock") String by) {
+        if (!authorized(header)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        if (n < 1 || n > 100) return ResponseEntity.badRequest().body(Map.of("error", "n must be 1-100"));
+        List<Map<String, Object>> top = roomCostService.top(n, by);
+        if (top == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "by must be one of " + RoomCostService.ORDERS.keySet()));
+        }
+        return ResponseEntity.ok(top);
+    }
+}
@@ -0,0 +1,36 @@
+package imperfect.lootanant.controller;
+
+import imperfect.lootanant.service.ChatService;
+import imperfect.lootanant.service.PresenceService;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+import java.util.Map;
+
+// STOMP-only: chat lines arrive as SEND frames on /app/room/{roomCode}/chat; history is GET /api/chat.
+// The sender is whoever this session watches the state of, never an ID from the frame body.
+@Controller
+public class ChatController {
+
+    private final ChatService chatService;
+    private final PresenceService presenceService;
+
+    public ChatController(ChatService chatService, PresenceService presenceService) {
+        this.chatService = chatService;
+        this.presenceService = presenceService;
+    }
+
+    @MessageMapping("/room/{roomCode}/chat")
+    public void chat(@DestinationVariable String roomCode, @Payload Map<String, Object> body,
+                     @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        String senderId = presenceService.watchedId(sessionId, roomCode);
+        if (senderId == null || !(body.get("text") instanceof String text)) return;
+        // Per-sender line number from the client; frames are handled concurrently, so it restores typing order
+        long line = body.get("n") instanceof Number n ? n.longValue() : -1;
+        chatService.post(roomCode, senderId, text, line);
+    }
+}
@@ -2,7 +2,15 @@ package imperfect.lootanant.controller;
 
 import imperfect.lootanant.model.GameRoom;
 import imperfect.lootanant.model.Player;
+import imperfect.lootanant.service.AdmissionService;
+import imperfect.lootanant.service.ChatService;
 import imperfect.lootanant.service.GameService;
+import imperfect.lootanant.service.LeaderboardIndex;
+import imperfect.lootanant.service.MatchHistoryService;
+import imperfect.lootanant.service.MatchmakingService;
+import imperfect.lootanant.service.QuickPlayService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,22 +21,74 @@ import java.util.Map;
 public class GameController {
 
     private final GameService gameService;
+    private final MatchmakingService matchmakingService;
+    private final MatchHistoryService matchHistoryService;
+    private final AdmissionService admissionService;
+    private final QuickPlayService quickPlayService;
+    private final ChatService chatService;
 
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, MatchmakingService matchmakingService,
+                          MatchHistoryService matchHistoryService, AdmissionService admissionService,
+                          QuickPlayService quickPlayService, ChatService chatService) {
         this.gameService = gameService;
+        this.matchmakingService = matchmakingService;
+        this.matchHistoryService = matchHistoryService;
+        this.admissionService = admissionService;
+        this.quickPlayService = quickPlayService;
+        this.chatService = chatService;
+    }
+
+    // Load shedding: new rooms and spectators wait while running games are at risk
+    private ResponseEntity<?> refuseIfSaturated() {
+        if (admissionService.check() == null) return null;
+        int retryAfter = admissionService.getRetryAfterSeconds();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(Map.of("error", "Server is busy, please try again shortly", "retryAfter", retryAfter));
     }
 
     @PostMapping("/create")
     public ResponseEntity<?> createRoom(@RequestBody Map<String, String> body) {
+        ResponseEntity<?> refused = refuseIfSaturated();
+        if (refused != null) return refused;
         String hostName = body.getOrDefault("name", "Host");
         String gameMode = body.getOrDefault("gameMode", "classic");
-        GameRoom room = gameService.createRoom(hostName, gameMode);
+        String pacing = body.getOrDefault("pacing", "standard");
+        GameRoom room = gameService.createRoom(hostName, gameMode, pacing, body.get("tag"));
+        if (room == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "No room codes available"));
+        }
         Player host = room.getPlayers().get(0);
         return ResponseEntity.ok(Map.of(
                 "roomCode", room.getRoomCode(),
                 "playerId", host.getId(),
                 "hostId", room.getHostId(),
-                "gameMode", room.getGameMode()
+                "gameMode", room.getGameMode(),
+                "pacing", room.getPacing().name()
+        ));
+    }
+
+    @PostMapping("/quickplay")
+    public ResponseEntity<?> quickPlay(@RequestBody Map<String, Object> body) {
+        ResponseEntity<?> refused = refuseIfSaturated();
+        if (refused != null) return refused;
+        if (!(body.getOrDefault("name", "Player") instanceof String name)
+                || !(body.getOrDefault("gameMode", "classic") instanceof String gameMode)
+                || !(body.getOrDefault("pacing", "standard") instanceof String pacing)
+                || !(body.getOrDefault("seats", 4) instanceof Integer seats)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "name, gameMode and pacing must be strings, seats a whole number"));
+        }
+        GameRoom room = quickPlayService.claim(name, gameMode, seats, pacing);
+        if (room == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "No room codes available"));
+        }
+        return ResponseEntity.ok(Map.of(
+                "roomCode", room.getRoomCode(),
+                "playerId", room.getHostId(),
+                // The room starts on a timer; the caller gets no host controls
+                "hostId", "",
+                "gameMode", room.getGameMode(),
+                "pacing", room.getPacing().name()
         ));
     }
 
@@ -47,6 +107,38 @@ public class GameController {
         return ResponseEntity.ok(Map.of("playerId", player.getId(), "gameMode", room != null ? room.getGameMode() : "classic"));
     }
 
+    @PostMapping("/matchmaking/join")
+    public ResponseEntity<?> joinMatchmaking(@RequestBody Map<String, String> body) {
+        ResponseEntity<?> refused = refuseIfSaturated();
+        if (refused != null) return refused;
+        String name = body.getOrDefault("name", "Player");
+        String gameMode = body.getOrDefault("gameMode", "classic");
+        return ResponseEntity.ok(matchmakingService.enqueue(name, gameMode));
+    }
+
+    @PostMapping("/matchmaking/leave")
+    public ResponseEntity<?> leaveMatchmaking(@RequestBody Map<String, String> body) {
+        boolean ok = matchmakingService.cancel(body.get("ticketId"));
+        if (!ok) return ResponseEntity.badRequest().body(Map.of("error", "Not in queue"));
+        return ResponseEntity.ok(Map.of("status", "left"));
+    }
+
+    @GetMapping("/leaderboard")
+    public ResponseEntity<?> leaderboard(@RequestParam(defaultValue = "10") int limit) {
+        int capped = Math.max(1, Math.min(100, limit));
+        return ResponseEntity.ok(Map.of(
+                "players", matchHistoryService.top(capped),
+                "totalPlayers", matchHistoryService.rankedPlayers()
+        ));
+    }
+
+    @GetMapping("/leaderboard/{name}")
+    public ResponseEntity<?> leaderboardStanding(@PathVariable String name) {
+        LeaderboardIndex.Standing standing = matchHistoryService.standing(name);
+        if (standing == null) return ResponseEntity.badRequest().body(Map.of("error", "No recorded games"));
+        return ResponseEntity.ok(standing);
+    }
+
     @PostMapping("/addCpu")
     public ResponseEntity<?> addCpu(@RequestBody Map<String, String> body) {
         String code = body.get("roomCode");
@@ -98,6 +190,8 @@ public class GameController {
 
     @PostMapping("/spectate")
     public ResponseEntity<?> spectate(@RequestBody Map<String, String> body) {
+        ResponseEntity<?> refused = refuseIfSaturated();
+        if (refused != null) return refused;
         String code = body.get("roomCode");
         String sid = gameService.joinAsSpectator(code);
         if (sid == null) return ResponseEntity.badRequest().body(Map.of("error", "Cannot spectate"));
@@ -190,4 +284,14 @@ public class GameController {
         if (room == null) return ResponseEntity.notFound().build();
         return ResponseEntity.ok(gameService.getPublicState(room, playerId));
     }
+
+    @GetMapping("/chat/{roomCode}/{playerId}")
+    public ResponseEntity<?> getChat(@PathVariable String roomCode, @PathVariable String playerId) {
+        GameRoom room = gameService.getRoom(roomCode);
+        if (room == null) return ResponseEntity.notFound().build();
+        if (room.getSnapshot().player(playerId) == null && !room.getSnapshot().spectatorIds().contains(playerId)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Not in this room"));
+        }
+        return ResponseEntity.ok(chatService.history(roomCode));
+    }
 }
@@ -0,0 +1,34 @@
+package imperfect.lootanant.controller;
+
+import imperfect.lootanant.service.PresenceService;
+import imperfect.lootanant.service.ReactionService;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+import java.util.Map;
+
+// STOMP-only: reactions arrive as SEND frames on /app/room/{roomCode}/react.
+// The sender is whoever this session watches the state of, never an ID from the frame body.
+@Controller
+public class ReactionController {
+
+    private final ReactionService reactionService;
+    private final PresenceService presenceService;
+
+    public ReactionController(ReactionService reactionService, PresenceService presenceService) {
+        this.reactionService = reactionService;
+        this.presenceService = presenceService;
+    }
+
+    @MessageMapping("/room/{roomCode}/react")
+    public void react(@DestinationVariable String roomCode, @Payload Map<String, Object> body,
+                      @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        String senderId = presenceService.watchedId(sessionId, roomCode);
+        if (senderId == null || !(body.get("emote") instanceof Number index)) return;
+        reactionService.react(roomCode, senderId, index.intValue());
+    }
+}
@@ -0,0 +1,4 @@
+package imperfect.lootanant.model;
+
+/** One chat line; seq is per room channel and lets clients drop duplicates after a history fetch. */
+public record ChatMessage(long seq, String name, String text, long ts) {}
@@ -0,0 +1,31 @@
+package imperfect.lootanant.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One analytics line: what happened, where, and the event-specific fields.
+ * Events a command sets off (a round result after the last pass, a game end
+ * after the winning bid) ride along in {@code then}, so a command is one line.
+ */
+public record GameEvent(long ts, String type, String roomCode, String gameMode, int round, Map<String, Object> data,
+                        @JsonInclude(JsonInclude.Include.NON_NULL) List<Derived> then) {
+
+    public record Derived(String type, int round, Map<String, Object> data) {}
+
+    public static GameEvent of(String type, GameRoom room, Map<String, Object> data) {
+        return new GameEvent(System.currentTimeMillis(), type, room.getRoomCode(), room.getGameMode(),
+                room.getRoundNumber(), data, null);
+    }
+
+    /** Appends a derived event; the first one turns this event into a copy that carries the list. */
+    public GameEvent fold(String type, GameRoom room, Map<String, Object> data) {
+        GameEvent folded = then != null ? this
+                : new GameEvent(ts, this.type, roomCode, gameMode, round, this.data, new ArrayList<>(2));
+        folded.then.add(new Derived(type, room.getRoundNumber(), data));
+        return folded;
+    }
+}
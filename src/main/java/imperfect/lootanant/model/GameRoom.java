@@ -1,15 +1,26 @@
 package imperfect.lootanant.model;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.concurrent.ScheduledFuture;
 
 public class GameRoom {
     private String roomCode;
+    private final int roomId;
     private String hostId;
-    private List<Player> players = new ArrayList<>();
+    private final List<Player> players = new ArrayList<>();
+    private final List<Player> playersView = Collections.unmodifiableList(players);
+    // Compact per-seat state; players are mapped to a seat index once at join
+    private final SeatTable seats = new SeatTable(SeatTable.MAX_SEATS);
+    // Session token slot -> token / seat; slots are never reused within a room
+    private String[] slotTokens = new String[SeatTable.MAX_SEATS];
+    private int[] slotSeats = new int[SeatTable.MAX_SEATS];
+    private int nextPlayerSlot = 0;
+    private int nextSpectatorSlot = 0;
     private boolean started = false;
     private boolean finished = false;
     private int currentGoldBarPurity = 0;
@@ -21,42 +32,208 @@ public class GameRoom {
     private String winnerId = null;
     private int winNetWorth = 50;
     private int startingCents = 12;
-    private List<String> spectatorIds = new ArrayList<>();
+    private Pacing pacing = Pacing.STANDARD;
+    // Pre-built quick-play room waiting in the pool: hidden from the lobby and from purging
+    private boolean reserved = false;
+    // Operator label (event, bracket) for the observer stream; null when untagged
+    private String tag = null;
+    // Spectator ID -> precomputed state destination
+    private final Map<String, String> spectators = new LinkedHashMap<>();
 
     // Rage mode fields
-    private String gameMode = "classic"; // "classic" or "rage"
+    private String gameMode = "classic"; // "classic", "rage" or "sealed"
     private int roundNumber = 0;
     private int kingsVault = 0;
     private boolean taxationPhaseActive = false;
     private boolean waitingForTaxConfirmation = false;
-    private Set<String> taxConfirmedPlayerIds = new HashSet<>();
+    private int taxConfirmedSpectatorCount = 0;
+
+    // Sealed mode: every seat bids once per round inside one window
+    private boolean sealedBidOpen = false;
+    private long sealedBidDeadline = 0;
 
     // Activity tracking for room cleanup
     private long lastActivityTime = System.currentTimeMillis();
 
-    public GameRoom(String roomCode, String hostId) {
+    // Last committed state, for lock-free readers
+    private volatile RoomSnapshot snapshot;
+
+    // Sliding-window cost counters, read by the admin top-rooms endpoint
+    private final RoomCost cost = new RoomCost();
+
+    public GameRoom(String roomCode, int roomId) {
         this.roomCode = roomCode;
-        this.hostId = hostId;
+        this.roomId = roomId;
+    }
+
+    public int allocatePlayerSlot() {
+        return nextPlayerSlot <= SessionToken.MAX_SLOT ? nextPlayerSlot++ : -1;
+    }
+
+    public int allocateSpectatorSlot() {
+        return nextSpectatorSlot <= SessionToken.MAX_SLOT ? nextSpectatorSlot++ : -1;
+    }
+
+    public boolean addPlayer(Player player) {
+        int seat = players.size();
+        if (seat >= SeatTable.MAX_SEATS) return false;
+        long payload = SessionToken.payload(player.getId());
+        if (payload < 0 || SessionToken.roomId(payload) != roomId) return false;
+        int slot = SessionToken.slot(payload);
+        if (slot >= slotTokens.length) {
+            int size = Math.max(slot + 1, slotTokens.length * 2);
+            slotTokens = Arrays.copyOf(slotTokens, size);
+            slotSeats = Arrays.copyOf(slotSeats, size);
+        }
+        seats.copySeat(player.getSeatTable(), player.getSeat(), seat);
+        player.bind(seats, seat);
+        player.setStateDestination(stateDestination(player.getId()));
+        players.add(player);
+        slotTokens[slot] = player.getId();
+        slotSeats[slot] = seat;
+        return true;
+    }
+
+    public boolean removePlayer(Player player) {
+        int seat = seatOf(player.getId());
+        if (seat < 0) return false;
+        player.detach();
+        seats.removeSeat(seat, players.size());
+        players.remove(seat);
+        slotTokens[SessionToken.slot(SessionToken.payload(player.getId()))] = null;
+        for (int i = seat; i < players.size(); i++) {
+            Player p = players.get(i);
+            p.bind(seats, i);
+            slotSeats[SessionToken.slot(SessionToken.payload(p.getId()))] = i;
+        }
+        return true;
+    }
+
+    // O(1): decode the slot from the token and check it against the token issued for that slot
+    public int seatOf(String id) {
+        long payload = SessionToken.payload(id);
+        if (payload < 0 || SessionToken.roomId(payload) != roomId) return -1;
+        int slot = SessionToken.slot(payload);
+        if (slot >= slotTokens.length || !id.equals(slotTokens[slot])) return -1;
+        return slotSeats[slot];
+    }
+
+    public String stateDestination(String id) {
+        return "/topic/room/" + roomCode + "/state/" + id;
+    }
+
+    public void addSpectator(String id) {
+        spectators.put(id, stateDestination(id));
+    }
+
+    public boolean removeSpectator(String id) {
+        return spectators.remove(id) != null;
+    }
+
+    public boolean isSpectator(String id) {
+        return id != null && spectators.containsKey(id);
     }
 
     public Player getPlayerById(String id) {
-        return players.stream().filter(p -> p.getId().equals(id)).findFirst().orElse(null);
+        int seat = seatOf(id);
+        return seat < 0 ? null : players.get(seat);
     }
 
     public int activeBiddersCount() {
-        return (int) players.stream().filter(p -> !p.isPassedThisRound()).count();
+        return seats.activeCount(players.size());
+    }
+
+    public boolean isOnlyActiveBesides(int seat) {
+        return seats.onlyActiveBesides(players.size(), seat);
+    }
+
+    public boolean hasConnectedHuman() {
+        return seats.hasConnectedHuman(players.size());
+    }
+
+    public int cpuCount() {
+        return seats.cpuCount(players.size());
+    }
+
+    public void resetPassed() {
+        seats.clearPassed();
+    }
+
+    // ── Tax confirmation (seat bitset; CPUs, spectators and players absent since absentBefore are auto-confirmed) ──
+    public void startTaxConfirmation(long absentBefore) {
+        seats.clearTaxConfirmed();
+        for (int i = 0; i < players.size(); i++) {
+            if (seats.isCpu(i) || (!seats.isConnected(i) && seats.getAbsentSince(i) <= absentBefore)) {
+                seats.setTaxConfirmed(i, true);
+            }
+        }
+        taxConfirmedSpectatorCount = spectators.size();
+    }
+
+    public void confirmTax(int seat) {
+        seats.setTaxConfirmed(seat, true);
+    }
+
+    public void clearTaxConfirmations() {
+        seats.clearTaxConfirmed();
+        taxConfirmedSpectatorCount = 0;
+    }
+
+    public int getTaxConfirmedCount() {
+        return seats.taxConfirmedCount(players.size()) + taxConfirmedSpectatorCount;
+    }
+
+    public boolean allHumansConfirmedTax() {
+        return seats.allHumansTaxConfirmed(players.size());
+    }
+
+    // ── Sealed bids (seat-indexed; 0 = pass) ──
+    public void submitSealedBid(int seat, int amount) {
+        seats.setSealedBid(seat, amount);
+    }
+
+    public boolean hasSealedBid(int seat) {
+        return seats.hasSealedBid(seat);
+    }
+
+    public int getSealedBid(int seat) {
+        return seats.getSealedBid(seat);
+    }
+
+    public boolean allSealedBidsIn() {
+        return seats.allSealed(players.size());
+    }
+
+    public void clearSealedBids() {
+        seats.clearSealedBids();
     }
 
     public boolean isRageMode() {
         return "rage".equalsIgnoreCase(gameMode);
     }
 
+    public boolean isSealedMode() {
+        return "sealed".equalsIgnoreCase(gameMode);
+    }
+
+    /** Keeps tags short and URL-safe; anything else means untagged. */
+    public static String normalizeTag(String tag) {
+        if (tag == null) return null;
+        String t = tag.trim().toLowerCase();
+        return t.matches("[a-z0-9_-]{1,32}") ? t : null;
+    }
+
+    public static String normalizeGameMode(String gameMode) {
+        if ("rage".equalsIgnoreCase(gameMode)) return "rage";
+        if ("sealed".equalsIgnoreCase(gameMode)) return "sealed";
+        return "classic";
+    }
+
     public String getRoomCode() { return roomCode; }
-    public void setRoomCode(String roomCode) { this.roomCode = roomCode; }
+    public int getRoomId() { return roomId; }
     public String getHostId() { return hostId; }
     public void setHostId(String hostId) { this.hostId = hostId; }
-    public List<Player> getPlayers() { return players; }
-    public void setPlayers(List<Player> players) { this.players = players; }
+    public List<Player> getPlayers() { return playersView; }
     public boolean isStarted() { return started; }
     public void setStarted(boolean started) { this.started = started; }
     public boolean isFinished() { return finished; }
@@ -79,8 +256,13 @@ public class GameRoom {
     public void setWinNetWorth(int winNetWorth) { this.winNetWorth = winNetWorth; }
     public int getStartingCents() { return startingCents; }
     public void setStartingCents(int startingCents) { this.startingCents = startingCents; }
-    public List<String> getSpectatorIds() { return spectatorIds; }
-    public void setSpectatorIds(List<String> spectatorIds) { this.spectatorIds = spectatorIds; }
+    public String getTag() { return tag; }
+    public void setTag(String tag) { this.tag = tag; }
+    public boolean isReserved() { return reserved; }
+    public void setReserved(boolean reserved) { this.reserved = reserved; }
+    public Pacing getPacing() { return pacing; }
+    public void setPacing(Pacing pacing) { this.pacing = pacing; }
+    public Map<String, String> getSpectators() { return spectators; }
     public String getGameMode() { return gameMode; }
     public void setGameMode(String gameMode) { this.gameMode = gameMode; }
     public int getRoundNumber() { return roundNumber; }
@@ -91,8 +273,13 @@ public class GameRoom {
     public void setTaxationPhaseActive(boolean taxationPhaseActive) { this.taxationPhaseActive = taxationPhaseActive; }
     public boolean isWaitingForTaxConfirmation() { return waitingForTaxConfirmation; }
     public void setWaitingForTaxConfirmation(boolean waitingForTaxConfirmation) { this.waitingForTaxConfirmation = waitingForTaxConfirmation; }
-    public Set<String> getTaxConfirmedPlayerIds() { return taxConfirmedPlayerIds; }
-    public void setTaxConfirmedPlayerIds(Set<String> taxConfirmedPlayerIds) { this.taxConfirmedPlayerIds = taxConfirmedPlayerIds; }
+    public boolean isSealedBidOpen() { return sealedBidOpen; }
+    public void setSealedBidOpen(boolean sealedBidOpen) { this.sealedBidOpen = sealedBidOpen; }
+    public long getSealedBidDeadline() { return sealedBidDeadline; }
+    public void setSealedBidDeadline(long sealedBidDeadline) { this.sealedBidDeadline = sealedBidDeadline; }
     public long getLastActivityTime() { return lastActivityTime; }
+    public RoomCost getCost() { return cost; }
+    public RoomSnapshot getSnapshot() { return snapshot; }
+    public void publishSnapshot() { this.snapshot = RoomSnapshot.of(this); }
     public void touchActivity() { this.lastActivityTime = System.currentTimeMillis(); }
 }
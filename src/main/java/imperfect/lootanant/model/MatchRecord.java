@@ -0,0 +1,31 @@
+package imperfect.lootanant.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** One finished game, as written to the match-history file. */
+public record MatchRecord(
+        String roomCode,
+        String gameMode,
+        String pacing,
+        long finishedAt,
+        int rounds,
+        String winnerName,
+        int winnerNetWorth,
+        List<PlayerResult> players) {
+
+    public record PlayerResult(String displayName, int netWorth, boolean cpu, boolean winner) {}
+
+    public static MatchRecord of(GameRoom room) {
+        Player winner = room.getPlayerById(room.getWinnerId());
+        List<PlayerResult> players = new ArrayList<>(room.getPlayers().size());
+        for (Player p : room.getPlayers()) {
+            players.add(new PlayerResult(p.getDisplayName(), p.getNetWorth(), p.isCpu(), p == winner));
+        }
+        return new MatchRecord(room.getRoomCode(), room.getGameMode(), room.getPacing().name(),
+                System.currentTimeMillis(), room.getRoundNumber(),
+                winner != null ? winner.getDisplayName() : null,
+                winner != null ? winner.getNetWorth() : 0,
+                List.copyOf(players));
+    }
+}
@@ -0,0 +1,31 @@
+package imperfect.lootanant.model;
+
+import java.time.Duration;
+
+/**
+ * Timings for one pacing profile (standard, blitz, bullet). A room keeps the
+ * profile it was created with, and every scheduled delay in the game reads it.
+ */
+public record Pacing(
+        String name,
+        Duration turn,
+        Duration cpuThinkMin,
+        Duration cpuThinkMax,
+        Duration income,
+        Duration roundGap,
+        Duration taxFallback) {
+
+    public static final Pacing STANDARD = new Pacing("standard", Duration.ofSeconds(20), Duration.ofSeconds(2),
+            Duration.ofSeconds(4), Duration.ofSeconds(5), Duration.ofSeconds(8), Duration.ofSeconds(30));
+
+    /** Names the profile and fills any timing left out of the configuration from {@code defaults}. */
+    public Pacing withDefaults(String name, Pacing defaults) {
+        return new Pacing(name,
+                turn != null ? turn : defaults.turn,
+                cpuThinkMin != null ? cpuThinkMin : defaults.cpuThinkMin,
+                cpuThinkMax != null ? cpuThinkMax : defaults.cpuThinkMax,
+                income != null ? income : defaults.income,
+                roundGap != null ? roundGap : defaults.roundGap,
+                taxFallback != null ? taxFallback : defaults.taxFallback);
+    }
+}
@@ -3,38 +3,52 @@ package imperfect.lootanant.model;
 public class Player {
     private String id;
     private String displayName;
-    private int cents = 12;
-    private int netWorth = 0;
-    private boolean cpu = false;
-    private boolean passedThisRound = false;
-    private boolean connected = true;
+    private String stateDestination;
 
-    // Rage mode fields
-    private int bribeTaxPercent = 0; // extra tax % from bribes (capped at 40)
-    private boolean hasActiveLoan = false;
+    // Numbers and flags live in the room's SeatTable once seated;
+    // an unseated player carries a private single-seat table.
+    private SeatTable seats;
+    private int seat = 0;
 
     public Player(String id, String displayName, boolean cpu) {
         this.id = id;
         this.displayName = displayName;
-        this.cpu = cpu;
+        this.seats = new SeatTable(1);
+        this.seats.reset(0, cpu);
     }
 
+    void bind(SeatTable seats, int seat) {
+        this.seats = seats;
+        this.seat = seat;
+    }
+
+    void detach() {
+        SeatTable own = new SeatTable(1);
+        own.copySeat(seats, seat, 0);
+        bind(own, 0);
+    }
+
+    SeatTable getSeatTable() { return seats; }
+    public int getSeat() { return seat; }
+
     public String getId() { return id; }
-    public void setId(String id) { this.id = id; }
     public String getDisplayName() { return displayName; }
     public void setDisplayName(String displayName) { this.displayName = displayName; }
-    public int getCents() { return cents; }
-    public void setCents(int cents) { this.cents = cents; }
-    public int getNetWorth() { return netWorth; }
-    public void setNetWorth(int netWorth) { this.netWorth = netWorth; }
-    public boolean isCpu() { return cpu; }
-    public void setCpu(boolean cpu) { this.cpu = cpu; }
-    public boolean isPassedThisRound() { return passedThisRound; }
-    public void setPassedThisRound(boolean passedThisRound) { this.passedThisRound = passedThisRound; }
-    public boolean isConnected() { return connected; }
-    public void setConnected(boolean connected) { this.connected = connected; }
-    public int getBribeTaxPercent() { return bribeTaxPercent; }
-    public void setBribeTaxPercent(int bribeTaxPercent) { this.bribeTaxPercent = Math.min(bribeTaxPercent, 40); }
-    public boolean isHasActiveLoan() { return hasActiveLoan; }
-    public void setHasActiveLoan(boolean hasActiveLoan) { this.hasActiveLoan = hasActiveLoan; }
+    public String getStateDestination() { return stateDestination; }
+    void setStateDestination(String stateDestination) { this.stateDestination = stateDestination; }
+    public int getCents() { return seats.getCents(seat); }
+    public void setCents(int cents) { seats.setCents(seat, cents); }
+    public int getNetWorth() { return seats.getNetWorth(seat); }
+    public void setNetWorth(int netWorth) { seats.setNetWorth(seat, netWorth); }
+    public boolean isCpu() { return seats.isCpu(seat); }
+    public void setCpu(boolean cpu) { seats.setCpu(seat, cpu); }
+    public boolean isPassedThisRound() { return seats.isPassed(seat); }
+    public void setPassedThisRound(boolean passedThisRound) { seats.setPassed(seat, passedThisRound); }
+    public boolean isConnected() { return seats.isConnected(seat); }
+    public void setConnected(boolean connected) { seats.setConnected(seat, connected); }
+    public long getAbsentSince() { return seats.getAbsentSince(seat); }
+    public int getBribeTaxPercent() { return seats.getBribeTaxPercent(seat); }
+    public void setBribeTaxPercent(int bribeTaxPercent) { seats.setBribeTaxPercent(seat, Math.min(bribeTaxPercent, 40)); }
+    public boolean isHasActiveLoan() { return seats.hasLoan(seat); }
+    public void setHasActiveLoan(boolean hasActiveLoan) { seats.setLoan(seat, hasActiveLoan); }
 }
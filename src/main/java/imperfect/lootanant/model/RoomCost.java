@@ -0,0 +1,70 @@
+package imperfect.lootanant.model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * What one room has cost the node over the last minute: commands, scheduled
+ * tasks, time spent holding the game lock, and STOMP frames and bytes delivered
+ * on its topics. Time is cut into fixed buckets and a bucket is reset when the
+ * clock comes round to it again, so reads sum a sliding window with no
+ * background sweep. An add racing a reset can be lost; the counters are for
+ * ranking rooms, not billing.
+ */
+public class RoomCost {
+    public static final int COMMANDS = 0;
+    public static final int TASKS = 1;
+    public static final int LOCK_NANOS = 2;
+    public static final int FRAMES = 3;
+    public static final int BYTES = 4;
+    private static final int METRICS = 5;
+
+    public static final long BUCKET_MILLIS = 5000;
+    public static final int BUCKETS = 12;
+    public static final long WINDOW_MILLIS = BUCKET_MILLIS * BUCKETS;
+
+    // Bucket-major: [bucket * METRICS + metric]
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS * METRICS);
+    // Which period (millis / BUCKET_MILLIS) each bucket currently holds
+    private final AtomicLongArray periods = new AtomicLongArray(BUCKETS);
+
+    /** A command or task: one more of {@code kind} and its time under the lock. */
+    public void charge(int kind, long lockNanos) {
+        charge(kind, lockNanos, System.currentTimeMillis());
+    }
+
+    void charge(int kind, long lockNanos, long nowMillis) {
+        int base = bucket(nowMillis) * METRICS;
+        counts.incrementAndGet(base + kind);
+        counts.addAndGet(base + LOCK_NANOS, lockNanos);
+    }
+
+    public void frame(int bytes) {
+        frame(bytes, System.currentTimeMillis());
+    }
+
+    void frame(int bytes, long nowMillis) {
+        int base = bucket(nowMillis) * METRICS;
+        counts.incrementAndGet(base + FRAMES);
+        counts.addAndGet(base + BYTES, bytes);
+    }
+
+    /** Sum of one metric over the buckets still inside the window. */
+    public long total(int metric, long nowMillis) {
+        long current = nowMillis / BUCKET_MILLIS;
+        long sum = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            if (current - periods.get(b) < BUCKETS) sum += counts.get(b * METRICS + metric);
+        }
+        return sum;
+    }
+
+    private int bucket(long nowMillis) {
+        long period = nowMillis / BUCKET_MILLIS;
+        int b = (int) (period % BUCKETS);
+        long held = periods.get(b);
+        if (held != period && periods.compareAndSet(b, held, period)) {
+            for (int m = 0; m < METRICS; m++) counts.set(b * METRICS + m, 0);
+        }
+        return b;
+    }
+}
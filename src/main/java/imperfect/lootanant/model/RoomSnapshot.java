@@ -0,0 +1,82 @@
+package imperfect.lootanant.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable copy of a room, published after every committed command.
+ * Readers (state polling, lobby listing, purging) use this instead of the live
+ * room, so they never take the game lock and never see a half-applied command.
+ */
+public record RoomSnapshot(
+        String roomCode,
+        String hostId,
+        String gameMode,
+        Pacing pacing,
+        boolean reserved,
+        String tag,
+        boolean started,
+        boolean finished,
+        int currentGoldBarPurity,
+        int currentHighBid,
+        String currentHighBidderId,
+        String currentTurnPlayerId,
+        String winnerId,
+        int winNetWorth,
+        int startingCents,
+        int roundNumber,
+        int kingsVault,
+        boolean waitingForTaxConfirmation,
+        int taxConfirmedCount,
+        boolean hasConnectedHuman,
+        long lastActivityTime,
+        boolean sealedBidOpen,
+        long sealedBidDeadline,
+        List<PlayerSnapshot> players,
+        Set<String> spectatorIds) {
+
+    public record PlayerSnapshot(String id, String displayName, int cents, int netWorth, boolean cpu,
+                                 boolean passed, boolean connected, int bribeTaxPercent,
+                                 boolean sealedBidSubmitted) {}
+
+    public static RoomSnapshot of(GameRoom room) {
+        List<PlayerSnapshot> players = new ArrayList<>(room.getPlayers().size());
+        for (int i = 0; i < room.getPlayers().size(); i++) {
+            Player p = room.getPlayers().get(i);
+            players.add(new PlayerSnapshot(p.getId(), p.getDisplayName(), p.getCents(), p.getNetWorth(), p.isCpu(),
+                    p.isPassedThisRound(), p.isConnected(), p.getBribeTaxPercent(),
+                    room.isSealedBidOpen() && room.hasSealedBid(i)));
+        }
+        // Sealed rounds have no turn order; everyone bids at once
+        String currentTurnPlayerId = room.isStarted() && !room.isFinished() && !room.isSealedMode()
+                && !room.getPlayers().isEmpty() ? room.getPlayers().get(room.getCurrentPlayerIndex()).getId() : null;
+        return new RoomSnapshot(room.getRoomCode(), room.getHostId(), room.getGameMode(), room.getPacing(), room.isReserved(), room.getTag(), room.isStarted(),
+                room.isFinished(), room.getCurrentGoldBarPurity(), room.getCurrentHighBid(),
+                room.getCurrentHighBidderId(), currentTurnPlayerId, room.getWinnerId(), room.getWinNetWorth(),
+                room.getStartingCents(), room.getRoundNumber(), room.getKingsVault(),
+                room.isWaitingForTaxConfirmation(), room.getTaxConfirmedCount(), room.hasConnectedHuman(),
+                room.getLastActivityTime(), room.isSealedBidOpen(), room.getSealedBidDeadline(), Collections.unmodifiableList(players),
+                Set.copyOf(room.getSpectators().keySet()));
+    }
+
+    public boolean isRageMode() {
+        return "rage".equalsIgnoreCase(gameMode);
+    }
+
+    public boolean isSealedMode() {
+        return "sealed".equalsIgnoreCase(gameMode);
+    }
+
+    public PlayerSnapshot host() {
+        return players.isEmpty() ? null : players.get(0);
+    }
+
+    public PlayerSnapshot player(String id) {
+        for (PlayerSnapshot p : players) {
+            if (p.id().equals(id)) return p;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,34 @@
+package imperfect.lootanant.model;
+
+/** Compact per-room line for the operator observer stream, built from a published snapshot. */
+public record RoomSummary(
+        String code,
+        String mode,
+        String tag,
+        String phase,
+        int round,
+        int purity,
+        int highBid,
+        int vault,
+        int connected,
+        int players,
+        int spectators) {
+
+    public static RoomSummary of(RoomSnapshot snap) {
+        int connected = 0;
+        for (RoomSnapshot.PlayerSnapshot p : snap.players()) {
+            if (!p.cpu() && p.connected()) connected++;
+        }
+        return new RoomSummary(snap.roomCode(), snap.gameMode(), snap.tag(), phase(snap), snap.roundNumber(),
+                snap.currentGoldBarPurity(), snap.currentHighBid(), snap.kingsVault(), connected,
+                snap.players().size(), snap.spectatorIds().size());
+    }
+
+    private static String phase(RoomSnapshot snap) {
+        if (snap.finished()) return "finished";
+        if (!snap.started()) return "waiting";
+        if (snap.waitingForTaxConfirmation()) return "tax";
+        if (snap.sealedBidOpen()) return "sealed";
+        return "bidding";
+    }
+}
@@ -0,0 +1,153 @@
+package imperfect.lootanant.model;
+
+/**
+ * Seat-indexed primitive storage for the per-player numbers and flags of one room.
+ * Flags are kept as bitsets (one bit per seat), so counting and "anyone else?" checks
+ * on the bidding path are single bit operations instead of list scans.
+ */
+public class SeatTable {
+    public static final int MAX_SEATS = 8;
+
+    private final int[] cents;
+    private final int[] netWorth;
+    private final int[] bribeTaxPercent;
+    private final int[] sealedBid;
+    // Wall-clock millis a human seat last lost its connection; 0 while connected
+    private final long[] absentSince;
+    private int passedBits = 0;
+    private int connectedBits = 0;
+    private int cpuBits = 0;
+    private int loanBits = 0;
+    private int taxConfirmedBits = 0;
+    private int sealedBits = 0;
+
+    public SeatTable(int capacity) {
+        this.cents = new int[capacity];
+        this.netWorth = new int[capacity];
+        this.bribeTaxPercent = new int[capacity];
+        this.sealedBid = new int[capacity];
+        this.absentSince = new long[capacity];
+    }
+
+    public void reset(int seat, boolean cpu) {
+        cents[seat] = 12;
+        netWorth[seat] = 0;
+        bribeTaxPercent[seat] = 0;
+        passedBits &= ~bit(seat);
+        connectedBits |= bit(seat);
+        cpuBits = set(cpuBits, seat, cpu);
+        loanBits &= ~bit(seat);
+        taxConfirmedBits &= ~bit(seat);
+        sealedBid[seat] = 0;
+        sealedBits &= ~bit(seat);
+        absentSince[seat] = 0;
+    }
+
+    /** Copies one seat from another table (used when a player is seated in a room). */
+    public void copySeat(SeatTable from, int fromSeat, int toSeat) {
+        cents[toSeat] = from.cents[fromSeat];
+        netWorth[toSeat] = from.netWorth[fromSeat];
+        bribeTaxPercent[toSeat] = from.bribeTaxPercent[fromSeat];
+        passedBits = set(passedBits, toSeat, from.isPassed(fromSeat));
+        connectedBits = set(connectedBits, toSeat, from.isConnected(fromSeat));
+        cpuBits = set(cpuBits, toSeat, from.isCpu(fromSeat));
+        loanBits = set(loanBits, toSeat, from.hasLoan(fromSeat));
+        taxConfirmedBits = set(taxConfirmedBits, toSeat, from.isTaxConfirmed(fromSeat));
+        sealedBid[toSeat] = from.sealedBid[fromSeat];
+        absentSince[toSeat] = from.absentSince[fromSeat];
+        sealedBits = set(sealedBits, toSeat, from.hasSealedBid(fromSeat));
+    }
+
+    /** Removes a seat and shifts every later seat down by one. */
+    public void removeSeat(int seat, int size) {
+        for (int i = seat; i < size - 1; i++) {
+            cents[i] = cents[i + 1];
+            netWorth[i] = netWorth[i + 1];
+            bribeTaxPercent[i] = bribeTaxPercent[i + 1];
+            sealedBid[i] = sealedBid[i + 1];
+            absentSince[i] = absentSince[i + 1];
+        }
+        passedBits = dropBit(passedBits, seat);
+        connectedBits = dropBit(connectedBits, seat);
+        cpuBits = dropBit(cpuBits, seat);
+        loanBits = dropBit(loanBits, seat);
+        taxConfirmedBits = dropBit(taxConfirmedBits, seat);
+        sealedBits = dropBit(sealedBits, seat);
+    }
+
+    public int getCents(int seat) { return cents[seat]; }
+    public void setCents(int seat, int value) { cents[seat] = value; }
+    public int getNetWorth(int seat) { return netWorth[seat]; }
+    public void setNetWorth(int seat, int value) { netWorth[seat] = value; }
+    public int getBribeTaxPercent(int seat) { return bribeTaxPercent[seat]; }
+    public void setBribeTaxPercent(int seat, int value) { bribeTaxPercent[seat] = value; }
+
+    public boolean isPassed(int seat) { return (passedBits & bit(seat)) != 0; }
+    public void setPassed(int seat, boolean value) { passedBits = set(passedBits, seat, value); }
+    public boolean isConnected(int seat) { return (connectedBits & bit(seat)) != 0; }
+    public void setConnected(int seat, boolean value) {
+        if (value != isConnected(seat)) absentSince[seat] = value ? 0 : System.currentTimeMillis();
+        connectedBits = set(connectedBits, seat, value);
+    }
+    public long getAbsentSince(int seat) { return absentSince[seat]; }
+    public boolean isCpu(int seat) { return (cpuBits & bit(seat)) != 0; }
+    public void setCpu(int seat, boolean value) { cpuBits = set(cpuBits, seat, value); }
+    public boolean hasLoan(int seat) { return (loanBits & bit(seat)) != 0; }
+    public void setLoan(int seat, boolean value) { loanBits = set(loanBits, seat, value); }
+    public boolean isTaxConfirmed(int seat) { return (taxConfirmedBits & bit(seat)) != 0; }
+    public void setTaxConfirmed(int seat, boolean value) { taxConfirmedBits = set(taxConfirmedBits, seat, value); }
+
+    public int getSealedBid(int seat) { return sealedBid[seat]; }
+    public boolean hasSealedBid(int seat) { return (sealedBits & bit(seat)) != 0; }
+    /** Records a sealed bid; 0 means the seat passed. */
+    public void setSealedBid(int seat, int amount) {
+        sealedBid[seat] = amount;
+        sealedBits |= bit(seat);
+    }
+
+    public void clearPassed() { passedBits = 0; }
+    public void clearTaxConfirmed() { taxConfirmedBits = 0; }
+    public void clearSealedBids() { sealedBits = 0; }
+
+    public int activeCount(int size) {
+        return size - Integer.bitCount(passedBits & mask(size));
+    }
+
+    /** True if every seat other than {@code seat} has passed. */
+    public boolean onlyActiveBesides(int size, int seat) {
+        int others = mask(size) & ~bit(seat);
+        return (others & ~passedBits) == 0;
+    }
+
+    public boolean hasConnectedHuman(int size) {
+        return (connectedBits & ~cpuBits & mask(size)) != 0;
+    }
+
+    public int cpuCount(int size) {
+        return Integer.bitCount(cpuBits & mask(size));
+    }
+
+    public int taxConfirmedCount(int size) {
+        return Integer.bitCount(taxConfirmedBits & mask(size));
+    }
+
+    public boolean allHumansTaxConfirmed(int size) {
+        int humans = ~cpuBits & mask(size);
+        return (humans & ~taxConfirmedBits) == 0;
+    }
+
+    public boolean allSealed(int size) {
+        return (mask(size) & ~sealedBits) == 0;
+    }
+
+    private static int bit(int seat) { return 1 << seat; }
+    private static int mask(int size) { return (1 << size) - 1; }
+    private static int set(int bits, int seat, boolean value) {
+        return value ? bits | bit(seat) : bits & ~bit(seat);
+    }
+    private static int dropBit(int bits, int seat) {
+        int low = bits & mask(seat);
+        int high = (bits >>> (seat + 1)) << seat;
+        return low | high;
+    }
+}
@@ -0,0 +1,45 @@
+package imperfect.lootanant.model;
+
+/**
+ * Layout of the compact session tokens used as player, CPU and spectator IDs.
+ * A token is 12 bytes in unpadded base64url (16 chars): 4 bytes room id,
+ * 2 bytes kind + slot, then a 6-byte MAC. The first 8 chars decode to the
+ * routing part without touching the MAC, so resolving a token is a few shifts.
+ */
+public final class SessionToken {
+    public static final int PLAYER = 0;
+    public static final int CPU = 1;
+    public static final int SPECTATOR = 2;
+    public static final int MAX_SLOT = (1 << 14) - 1;
+    public static final int LENGTH = 16;
+
+    private static final byte[] DECODE = new byte[128];
+    static {
+        java.util.Arrays.fill(DECODE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) DECODE[alphabet.charAt(i)] = (byte) i;
+    }
+
+    private SessionToken() {}
+
+    /** Decodes the 48-bit routing part of a token, or returns -1 if it is malformed. */
+    public static long payload(String token) {
+        if (token == null || token.length() != LENGTH) return -1;
+        long v = 0;
+        for (int i = 0; i < 8; i++) {
+            char c = token.charAt(i);
+            int d = c < 128 ? DECODE[c] : -1;
+            if (d < 0) return -1;
+            v = (v << 6) | d;
+        }
+        return v;
+    }
+
+    public static long pack(int roomId, int kind, int slot) {
+        return ((roomId & 0xFFFFFFFFL) << 16) | ((long) kind << 14) | slot;
+    }
+
+    public static int roomId(long payload) { return (int) (payload >>> 16); }
+    public static int kind(long payload) { return (int) (payload >>> 14) & 0x3; }
+    public static int slot(long payload) { return (int) payload & MAX_SLOT; }
+}
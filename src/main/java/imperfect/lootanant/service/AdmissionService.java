@@ -0,0 +1,112 @@
+package imperfect.lootanant.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Node-level admission for work that adds load: new rooms (create, matchmaking)
+ * and new spectators. Rooms already running are never touched; when any live
+ * signal says the node is saturated, new arrivals are turned away with a
+ * retry hint so existing games keep meeting their turn deadlines.
+ */
+@Service
+public class AdmissionService {
+
+    public enum Signal { ROOMS, SCHEDULER_LAG, OUTBOUND_QUEUE, HEAP }
+
+    private final GameService gameService;
+    private final ThreadPoolTaskExecutor outboundExecutor;
+    private final List<MemoryPoolMXBean> heapPools;
+    private final int maxRooms;
+    private final long maxSchedulerLagMs;
+    private final int maxOutboundQueue;
+    private final int minHeapFreePercent;
+    private final int retryAfterSeconds;
+    private final Map<Signal, Counter> rejected = new EnumMap<>(Signal.class);
+
+    public AdmissionService(GameService gameService, MeterRegistry meterRegistry,
+                            @Qualifier("clientOutboundChannelExecutor") TaskExecutor outboundExecutor,
+                            @Value("${lootanant.admission.max-rooms:2000}") int maxRooms,
+                            @Value("${lootanant.admission.max-scheduler-lag-ms:250}") long maxSchedulerLagMs,
+                            @Value("${lootanant.admission.max-outbound-queue:5000}") int maxOutboundQueue,
+                            @Value("${lootanant.admission.min-heap-free-percent:15}") int minHeapFreePercent,
+                            @Value("${lootanant.admission.retry-after-seconds:5}") int retryAfterSeconds) {
+        this.gameService = gameService;
+        this.outboundExecutor = outboundExecutor instanceof ThreadPoolTaskExecutor pool ? pool : null;
+        this.maxRooms = maxRooms;
+        this.maxSchedulerLagMs = maxSchedulerLagMs;
+        this.maxOutboundQueue = maxOutboundQueue;
+        this.minHeapFreePercent = minHeapFreePercent;
+        this.retryAfterSeconds = retryAfterSeconds;
+        // Pools that report usage right after a GC: their sum is the live set, not garbage awaiting collection
+        this.heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(p -> p.getType() == MemoryType.HEAP && p.isCollectionUsageThresholdSupported())
+                .toList();
+        Gauge.builder("lootanant.admission.scheduler.lag", this, a -> a.gameService.getSchedulerLagMillis())
+                .baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("lootanant.admission.outbound.queue", this, AdmissionService::outboundQueueDepth)
+                .register(meterRegistry);
+        Gauge.builder("lootanant.admission.heap.free", this, AdmissionService::heapFreePercent)
+                .baseUnit("percent").register(meterRegistry);
+        for (Signal signal : Signal.values()) {
+            rejected.put(signal, Counter.builder("lootanant.admission.rejected")
+                    .tag("signal", signal.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /** Returns the first saturated signal, or null when the node can take more work. */
+    public Signal check() {
+        Signal signal = saturated();
+        if (signal != null) rejected.get(signal).increment();
+        return signal;
+    }
+
+    /** Same signals as {@link #check()}, without counting a rejection (for background work). */
+    public boolean hasHeadroom() {
+        return saturated() == null;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    private Signal saturated() {
+        if (gameService.getRoomCount() >= maxRooms) return Signal.ROOMS;
+        if (gameService.getSchedulerLagMillis() > maxSchedulerLagMs) return Signal.SCHEDULER_LAG;
+        if (outboundQueueDepth() > maxOutboundQueue) return Signal.OUTBOUND_QUEUE;
+        if (heapFreePercent() < minHeapFreePercent) return Signal.HEAP;
+        return null;
+    }
+
+    private int outboundQueueDepth() {
+        if (outboundExecutor == null || outboundExecutor.getThreadPoolExecutor() == null) return 0;
+        return outboundExecutor.getThreadPoolExecutor().getQueue().size();
+    }
+
+    private double heapFreePercent() {
+        long max = Runtime.getRuntime().maxMemory();
+        if (max <= 0 || max == Long.MAX_VALUE) return 100;
+        long live = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null) live += usage.getUsed();
+        }
+        if (heapPools.isEmpty()) live = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        return 100.0 * (max - live) / max;
+    }
+}
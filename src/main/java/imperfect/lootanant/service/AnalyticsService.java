@@ -0,0 +1,166 @@
+package imperfect.lootanant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import imperfect.lootanant.model.GameEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gameplay event export for offline tuning. Publishing is one CAS and one slot
+ * write into a fixed ring; a single writer thread drains the ring in batches
+ * into rolling gzip NDJSON files. If the writer falls behind and the ring is
+ * full, new events are dropped and counted instead of blocking the game.
+ */
+@Service
+public class AnalyticsService {
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final boolean enabled;
+    private final AtomicReferenceArray<GameEvent> ring;
+    private final int mask;
+    // Next sequence to claim (producers) and next sequence to drain (writer only)
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail = 0;
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor();
+    private final ObjectMapper objectMapper;
+    private final Path dir;
+    private final long rollBytes;
+    private final long rollMillis;
+    private final Counter dropped;
+    private final Counter written;
+
+    // Writer-thread state
+    private BufferedWriter out;
+    private Path outPath;
+    private long outOpenedAt;
+    private int fileIndex;
+
+    public AnalyticsService(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            @Value("${lootanant.analytics.enabled:false}") boolean enabled,
+                            @Value("${lootanant.analytics.dir:data/analytics}") String dir,
+                            @Value("${lootanant.analytics.ring-size:65536}") int ringSize,
+                            @Value("${lootanant.analytics.flush-interval-ms:500}") long flushIntervalMs,
+                            @Value("${lootanant.analytics.roll-bytes:67108864}") long rollBytes,
+                            @Value("${lootanant.analytics.roll-minutes:60}") long rollMinutes) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.dir = Path.of(dir);
+        this.rollBytes = rollBytes;
+        this.rollMillis = TimeUnit.MINUTES.toMillis(rollMinutes);
+        int capacity = Integer.highestOneBit(Math.max(2, ringSize - 1)) << 1; // round up to a power of two
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.dropped = Counter.builder("lootanant.analytics.dropped").register(meterRegistry);
+        this.written = Counter.builder("lootanant.analytics.written").register(meterRegistry);
+        if (enabled) {
+            writer.scheduleWithFixedDelay(this::drain, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void publish(GameEvent event) {
+        if (!enabled) return;
+        while (true) {
+            long seq = head.get();
+            if (seq - tail > mask) {
+                dropped.increment(); // ring full: writer is behind, shed instead of waiting
+                return;
+            }
+            if (head.compareAndSet(seq, seq + 1)) {
+                ring.set((int) seq & mask, event);
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            long seq = tail;
+            long end = head.get();
+            int count = 0;
+            while (seq < end) {
+                int slot = (int) seq & mask;
+                GameEvent event = ring.get(slot);
+                if (event == null) break; // claimed but not yet written; pick it up next tick
+                ensureOpen();
+                out.write(objectMapper.writeValueAsString(event));
+                out.newLine();
+                ring.set(slot, null); // free the slot before advancing tail past it
+                tail = ++seq;
+                count++;
+            }
+            if (count > 0) {
+                out.flush();
+                written.increment(count);
+                // Sync flush has pushed the batch through the deflater, so the file size is the compressed size
+                if (Files.size(outPath) >= rollBytes || System.currentTimeMillis() - outOpenedAt >= rollMillis) closeFile();
+            }
+        } catch (IOException e) {
+            // Disk trouble: drop the current file; undrained events stay in the ring or get shed
+            closeQuietly();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (out != null) return;
+        Files.createDirectories(dir);
+        String name = "events-" + LocalDateTime.now().format(FILE_STAMP) + "-" + (fileIndex++) + ".ndjson.gz";
+        outPath = dir.resolve(name);
+        OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(outPath), 64 * 1024, true);
+        out = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 64 * 1024);
+        outOpenedAt = System.currentTimeMillis();
+    }
+
+    private void closeFile() throws IOException {
+        if (out == null) return;
+        try {
+            out.close(); // finishes the gzip trailer
+        } finally {
+            out = null;
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            closeFile();
+        } catch (IOException ignored) {
+            out = null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (enabled) drain();
+        closeQuietly();
+    }
+}
@@ -0,0 +1,184 @@
+package imperfect.lootanant.service;
+
+import imperfect.lootanant.model.ChatMessage;
+import imperfect.lootanant.model.GameRoom;
+import imperfect.lootanant.model.RoomSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-room chat, kept entirely off the game monitor. Players and spectators
+ * post to separate channels, each with its own fixed-size history ring and
+ * its own flush thread, so a busy audience never delays player chat. Posting
+ * only appends to the ring; the flusher sends everything new since the last
+ * window as one frame. A channel that outruns its ring between flushes loses
+ * the oldest lines instead of queueing without bound. Inbound frames are
+ * handled concurrently, so lines carry the sender's own line number and the
+ * not-yet-delivered tail of a ring is kept in that order per sender.
+ */
+@Service
+public class ChatService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatService.class);
+
+    public enum Channel { PLAYERS, SPECTATORS }
+
+    private static final int MAX_TEXT = 200;
+
+    private final GameService gameService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RateLimiter rateLimiter;
+    private final int historySize;
+    private final ScheduledExecutorService playerFlusher = Executors.newSingleThreadScheduledExecutor();
+    private final ScheduledExecutorService spectatorFlusher = Executors.newSingleThreadScheduledExecutor();
+    // Room code -> one ring per channel (indexed by Channel.ordinal())
+    private final ConcurrentHashMap<String, Ring[]> rooms = new ConcurrentHashMap<>();
+
+    public ChatService(GameService gameService, SimpMessagingTemplate messagingTemplate, RateLimiter rateLimiter,
+                       @Value("${lootanant.chat.history-size:50}") int historySize,
+                       @Value("${lootanant.chat.player-flush-ms:100}") long playerFlushMs,
+                       @Value("${lootanant.chat.spectator-flush-ms:500}") long spectatorFlushMs) {
+        this.gameService = gameService;
+        this.messagingTemplate = messagingTemplate;
+        this.rateLimiter = rateLimiter;
+        this.historySize = Math.max(1, historySize);
+        playerFlusher.scheduleAtFixedRate(() -> flush(Channel.PLAYERS), playerFlushMs, playerFlushMs, TimeUnit.MILLISECONDS);
+        spectatorFlusher.scheduleAtFixedRate(() -> flush(Channel.SPECTATORS), spectatorFlushMs, spectatorFlushMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Posts to the sender's own channel; false if the sender is unknown, throttled, or the line is empty.
+     * {@code line} is the sender's running line number, or -1 if the client does not send one.
+     */
+    public boolean post(String roomCode, String senderId, String text, long line) {
+        GameRoom room = gameService.getRoom(roomCode);
+        RoomSnapshot snapshot = room == null ? null : room.getSnapshot();
+        if (snapshot == null) return false;
+        Channel channel;
+        String name;
+        RoomSnapshot.PlayerSnapshot player = snapshot.player(senderId);
+        if (player != null && !player.cpu()) {
+            channel = Channel.PLAYERS;
+            name = player.displayName();
+        } else if (snapshot.spectatorIds().contains(senderId)) {
+            channel = Channel.SPECTATORS;
+            name = "Spectator";
+        } else {
+            return false;
+        }
+        if (text == null || text.isBlank()) return false;
+        text = text.strip();
+        if (text.length() > MAX_TEXT) text = text.substring(0, MAX_TEXT);
+        if (!rateLimiter.tryAcquire(RateLimiter.Scope.CHAT, senderId, "chat")) return false;
+        rooms.computeIfAbsent(roomCode, c -> newRings())[channel.ordinal()].append(senderId, line, name, text);
+        return true;
+    }
+
+    /** Both channels' retained lines, oldest first, for late joiners and reconnects. */
+    public Map<String, List<ChatMessage>> history(String roomCode) {
+        Ring[] rings = rooms.get(roomCode);
+        if (rings == null) return Map.of("players", List.of(), "spectators", List.of());
+        return Map.of(
+                "players", rings[Channel.PLAYERS.ordinal()].since(0),
+                "spectators", rings[Channel.SPECTATORS.ordinal()].since(0));
+    }
+
+    private void flush(Channel channel) {
+        String suffix = "/chat/" + channel.name().toLowerCase();
+        for (Map.Entry<String, Ring[]> e : rooms.entrySet()) {
+            String code = e.getKey();
+            // One bad room must not stop the rest of the flush
+            try {
+                if (gameService.getRoom(code) == null) {
+                    rooms.remove(code, e.getValue());
+                    continue;
+                }
+                List<ChatMessage> batch = e.getValue()[channel.ordinal()].drain();
+                if (batch.isEmpty()) continue;
+                messagingTemplate.convertAndSend("/topic/room/" + code + suffix, (Object) Map.of("messages", batch));
+            } catch (RuntimeException ex) {
+                log.warn("Chat flush failed for room {}", code, ex);
+            }
+        }
+    }
+
+    private Ring[] newRings() {
+        Ring[] rings = new Ring[Channel.values().length];
+        for (int i = 0; i < rings.length; i++) rings[i] = new Ring(historySize);
+        return rings;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        playerFlusher.shutdownNow();
+        spectatorFlusher.shutdownNow();
+    }
+
+    // Fixed-size history; seq keeps counting so delivered/undelivered is a single cursor
+    static final class Ring {
+        private final ChatMessage[] lines;
+        // Who wrote each slot and their line number, for ordering the undelivered tail
+        private final String[] senders;
+        private final long[] senderLines;
+        private long next = 0;
+        private long delivered = 0;
+
+        Ring(int size) {
+            this.lines = new ChatMessage[size];
+            this.senders = new String[size];
+            this.senderLines = new long[size];
+        }
+
+        synchronized void append(String senderId, long line, String name, String text) {
+            long at = next++;
+            // A line that overtook earlier ones from the same sender goes in front of the first of them,
+            // searching only the undelivered tail; later lines shift up by one
+            long oldest = Math.max(delivered, next - lines.length);
+            long target = at;
+            for (long s = at - 1; line >= 0 && s >= oldest; s--) {
+                int slot = (int) (s % lines.length);
+                if (!senderId.equals(senders[slot])) continue;
+                if (senderLines[slot] <= line) break;
+                target = s;
+            }
+            for (; at > target; at--) move((int) ((at - 1) % lines.length), at);
+            int slot = (int) (at % lines.length);
+            lines[slot] = new ChatMessage(at, name, text, System.currentTimeMillis());
+            senders[slot] = senderId;
+            senderLines[slot] = line;
+        }
+
+        private void move(int from, long toSeq) {
+            int to = (int) (toSeq % lines.length);
+            ChatMessage m = lines[from];
+            lines[to] = new ChatMessage(toSeq, m.name(), m.text(), m.ts());
+            senders[to] = senders[from];
+            senderLines[to] = senderLines[from];
+        }
+
+        synchronized List<ChatMessage> drain() {
+            List<ChatMessage> batch = since(delivered);
+            delivered = next;
+            return batch;
+        }
+
+        synchronized List<ChatMessage> since(long seq) {
+            long from = Math.max(seq, next - lines.length);
+            List<ChatMessage> out = new ArrayList<>((int) (next - from));
+            for (long s = from; s < next; s++) out.add(lines[(int) (s % lines.length)]);
+            return out;
+        }
+    }
+}
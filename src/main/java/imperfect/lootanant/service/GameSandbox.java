@@ -0,0 +1,81 @@
+package imperfect.lootanant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import imperfect.lootanant.config.PacingProperties;
+import imperfect.lootanant.model.GameRoom;
+import imperfect.lootanant.model.Pacing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * A throwaway GameService for synthetic games (warm-up, benchmarks, tests).
+ * History goes to a temp directory, analytics is disabled, and the "sandbox"
+ * pacing profile and the absence grace are zero, so all-CPU games run as fast
+ * as the scheduler allows. Closing it shuts the service down and deletes the
+ * temp directory.
+ */
+public class GameSandbox implements AutoCloseable {
+
+    public static final String PACING = "sandbox";
+
+    private final Path scratch;
+    private final MatchHistoryService history;
+    private final AnalyticsService analytics;
+    private final GameService games;
+
+    public GameSandbox(SimpMessagingTemplate template, ObjectMapper objectMapper) throws IOException {
+        this.scratch = Files.createTempDirectory("lootanant-sandbox");
+        this.history = new MatchHistoryService(objectMapper, scratch.resolve("history.ndjson").toString(), 1000, 512);
+        this.analytics = new AnalyticsService(objectMapper, new SimpleMeterRegistry(), false,
+                scratch.toString(), 2, 1000, 1, 1);
+        this.games = new GameService(template, new IdentityService(""), new RoomCodeAllocator(), pacing(),
+                history, analytics);
+        games.setAbsenceGraceMillis(0);
+    }
+
+    public GameService games() {
+        return games;
+    }
+
+    /** Starts a game with CPUs in every other seat; the host is marked absent, so a stand-in plays for them. */
+    public GameRoom startCpuGame(String hostName, String mode, int seats) {
+        GameRoom room = games.createRoom(hostName, mode, PACING);
+        if (room == null) return null;
+        for (int i = 1; i < seats; i++) games.addCpu(room.getRoomCode(), room.getHostId());
+        games.markAbsent(room.getRoomCode(), room.getHostId());
+        games.startGame(room.getRoomCode(), room.getHostId());
+        return room;
+    }
+
+    /** Polls until the room's game is over or {@code deadlineNanos} (System.nanoTime) passes. */
+    public static boolean awaitFinished(GameRoom room, long deadlineNanos) throws InterruptedException {
+        while (!room.getSnapshot().finished() && System.nanoTime() < deadlineNanos) Thread.sleep(5);
+        return room.getSnapshot().finished();
+    }
+
+    @Override
+    public void close() {
+        games.shutdown();
+        history.shutdown();
+        analytics.shutdown();
+        try (Stream<Path> files = Files.walk(scratch)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            // Temp directory; the OS cleans it up eventually
+        }
+    }
+
+    private static PacingProperties pacing() {
+        PacingProperties pacing = new PacingProperties();
+        pacing.getProfiles().put(PACING, new Pacing(PACING, Duration.ofSeconds(5), Duration.ZERO, Duration.ZERO,
+                Duration.ZERO, Duration.ZERO, Duration.ZERO));
+        return pacing;
+    }
+}
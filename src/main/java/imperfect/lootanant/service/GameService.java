@@ -1,7 +1,16 @@
 package imperfect.lootanant.service;
 
+import imperfect.lootanant.config.PacingProperties;
+import imperfect.lootanant.model.GameEvent;
 import imperfect.lootanant.model.GameRoom;
+import imperfect.lootanant.model.MatchRecord;
+import imperfect.lootanant.model.Pacing;
 import imperfect.lootanant.model.Player;
+import imperfect.lootanant.model.RoomCost;
+import imperfect.lootanant.model.RoomSnapshot;
+import imperfect.lootanant.model.SeatTable;
+import imperfect.lootanant.model.SessionToken;
+import jakarta.annotation.PreDestroy;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
@@ -13,29 +22,132 @@ public class GameService {
 
     private final ConcurrentHashMap<String, GameRoom> rooms = new ConcurrentHashMap<>();
     private final SimpMessagingTemplate messagingTemplate;
+    private final IdentityService identityService;
+    private final RoomCodeAllocator roomCodeAllocator;
+    private final PacingProperties pacingProperties;
+    private final MatchHistoryService matchHistoryService;
+    private final AnalyticsService analytics;
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
     private final Random random = new Random();
     private static final long ROOM_EXPIRY_MINUTES = 30;
-
-    public GameService(SimpMessagingTemplate messagingTemplate) {
+    private static final long LAG_PROBE_MS = 250;
+    // A page reload drops the session for a moment; stand-ins wait this long before acting
+    static final long ABSENCE_GRACE_MS = 5000;
+    private volatile long absenceGraceMillis = ABSENCE_GRACE_MS;
+    // How late the last probe task ran; feeds admission control
+    private volatile long schedulerLagMillis = 0;
+    // When the pending probe was armed, so a probe that has not run yet still shows its lateness
+    private volatile long probeArmedAt = System.nanoTime();
+
+    public GameService(SimpMessagingTemplate messagingTemplate, IdentityService identityService,
+                       RoomCodeAllocator roomCodeAllocator, PacingProperties pacingProperties,
+                       MatchHistoryService matchHistoryService, AnalyticsService analytics) {
         this.messagingTemplate = messagingTemplate;
+        this.identityService = identityService;
+        this.roomCodeAllocator = roomCodeAllocator;
+        this.pacingProperties = pacingProperties;
+        this.matchHistoryService = matchHistoryService;
+        this.analytics = analytics;
         // Periodically purge finished/empty rooms to prevent memory leaks
         scheduler.scheduleAtFixedRate(this::purgeStaleRooms, 5, 5, TimeUnit.MINUTES);
+        scheduleLagProbe();
+    }
+
+    // A one-shot that measures how late it ran, then re-arms itself. Turn timers and
+    // CPU moves share this pool, so its lateness is what running games feel.
+    private void scheduleLagProbe() {
+        long armedAt = System.nanoTime();
+        probeArmedAt = armedAt;
+        scheduler.schedule(() -> {
+            long late = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - armedAt) - LAG_PROBE_MS;
+            schedulerLagMillis = Math.max(0, late);
+            scheduleLagProbe();
+        }, LAG_PROBE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // A saturated or blocked pool never runs the probe, so count the pending one's overdue time too
+    public long getSchedulerLagMillis() {
+        long pending = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - probeArmedAt) - LAG_PROBE_MS;
+        return Math.max(schedulerLagMillis, pending);
+    }
+
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    // ── Cost accounting ──
+
+    // Nesting depth under the monitor: only the outermost command or task is charged,
+    // so a timer that auto-passes counts once, with all of its lock time
+    private int chargeDepth = 0;
+    // Analytics record of the running command or task, published when it exits
+    private GameEvent pendingEvent;
+
+    // Callers hold the monitor: public commands are synchronized, tasks run through runTask
+    private long enter() {
+        chargeDepth++;
+        return System.nanoTime();
+    }
+
+    private void exit(GameRoom room, int kind, long t0) {
+        if (--chargeDepth > 0) return;
+        if (room != null) room.getCost().charge(kind, System.nanoTime() - t0);
+        if (pendingEvent != null) {
+            analytics.publish(pendingEvent);
+            pendingEvent = null;
+        }
+    }
+
+    // One analytics record per command or task: later events fold into the first one.
+    // Per-command call sites check isEnabled() first, so a disabled export builds no payload.
+    private void publish(String type, GameRoom room, Map<String, Object> data) {
+        if (!analytics.isEnabled()) return;
+        if (chargeDepth == 0) {
+            analytics.publish(GameEvent.of(type, room, data));
+        } else {
+            pendingEvent = pendingEvent == null ? GameEvent.of(type, room, data) : pendingEvent.fold(type, room, data);
+        }
+    }
+
+    private GameRoom charged(String code) {
+        return code == null ? null : rooms.get(code);
+    }
+
+    private ScheduledFuture<?> schedule(GameRoom room, Runnable task, long delayMillis) {
+        return scheduler.schedule(() -> runTask(room, task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void runTask(GameRoom room, Runnable task) {
+        long t0 = enter();
+        try {
+            task.run();
+        } finally {
+            exit(room, RoomCost.TASKS, t0);
+        }
     }
 
     private void purgeStaleRooms() {
         long now = System.currentTimeMillis();
         rooms.entrySet().removeIf(entry -> {
             GameRoom room = entry.getValue();
+            RoomSnapshot snap = room.getSnapshot();
+            // Pooled quick-play rooms have no players yet; the pool owns them
+            if (snap.reserved()) return false;
             // Remove finished games older than expiry
-            if (room.isFinished() && now - room.getLastActivityTime() > ROOM_EXPIRY_MINUTES * 60 * 1000) {
+            if (snap.finished() && now - snap.lastActivityTime() > ROOM_EXPIRY_MINUTES * 60 * 1000) {
                 cancelTimer(room);
+                roomCodeAllocator.release(entry.getKey());
                 return true;
             }
             // Remove rooms where all players are disconnected for too long
-            boolean allDisconnected = room.getPlayers().stream().noneMatch(p -> p.isConnected() && !p.isCpu());
-            if (allDisconnected && now - room.getLastActivityTime() > ROOM_EXPIRY_MINUTES * 60 * 1000) {
+            if (!snap.hasConnectedHuman() && now - snap.lastActivityTime() > ROOM_EXPIRY_MINUTES * 60 * 1000) {
                 cancelTimer(room);
+                roomCodeAllocator.release(entry.getKey());
                 return true;
             }
             return false;
@@ -43,284 +155,451 @@ public class GameService {
     }
 
     public GameRoom createRoom(String hostName, String gameMode) {
-        String code = generateRoomCode();
-        String hostId = UUID.randomUUID().toString();
-        GameRoom room = new GameRoom(code, hostId);
-        if ("rage".equalsIgnoreCase(gameMode)) {
-            room.setGameMode("rage");
-        }
+        return createRoom(hostName, gameMode, PacingProperties.DEFAULT_PROFILE);
+    }
+
+    public GameRoom createRoom(String hostName, String gameMode, String pacing) {
+        return createRoom(hostName, gameMode, pacing, null);
+    }
+
+    public synchronized GameRoom createRoom(String hostName, String gameMode, String pacing, String tag) {
+        GameRoom room = newRoom(hostName, gameMode, pacing);
+        if (room == null) return null;
+        room.setTag(GameRoom.normalizeTag(tag));
+        room.publishSnapshot();
+        rooms.put(room.getRoomCode(), room);
+        return room;
+    }
+
+    private GameRoom newRoom(String hostName, String gameMode, String pacing) {
+        String code = roomCodeAllocator.allocate();
+        if (code == null) return null;
+        GameRoom room = new GameRoom(code, identityService.nextRoomId());
+        String hostId = identityService.issue(room.getRoomId(), SessionToken.PLAYER, room.allocatePlayerSlot());
+        room.setHostId(hostId);
+        room.setGameMode(GameRoom.normalizeGameMode(gameMode));
+        room.setPacing(pacingProperties.resolve(pacing));
         Player host = new Player(hostId, hostName, false);
-        room.getPlayers().add(host);
-        rooms.put(code, room);
+        room.addPlayer(host);
         return room;
     }
 
+    // ── Quick play: rooms pre-built off the request path, claimed in one call ──
+    public synchronized GameRoom createReservedRoom(String gameMode, int tableSize) {
+        GameRoom room = newRoom("Player", gameMode, PacingProperties.DEFAULT_PROFILE);
+        if (room == null) return null;
+        room.setReserved(true);
+        // Nobody is subscribed yet, so seat the CPUs directly instead of via addCpu's broadcasts
+        for (int i = 1; i < Math.min(tableSize, SeatTable.MAX_SEATS); i++) {
+            int slot = room.allocatePlayerSlot();
+            if (slot < 0) break;
+            String cpuId = identityService.issue(room.getRoomId(), SessionToken.CPU, slot);
+            room.addPlayer(new Player(cpuId, "CPU " + i, true));
+        }
+        room.publishSnapshot();
+        rooms.put(room.getRoomCode(), room);
+        return room;
+    }
+
+    /** Hands a pooled room to a player; null if it was claimed or discarded. The caller starts the game. */
+    public synchronized GameRoom claimReservedRoom(String code, String displayName, String pacing) {
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null || !room.isReserved()) return null;
+            room.setReserved(false);
+            room.getPlayers().get(0).setDisplayName(displayName);
+            room.setPacing(pacingProperties.resolve(pacing));
+            room.touchActivity();
+            broadcastState(room);
+            return room;
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
+        }
+    }
+
+    public synchronized void discardReservedRoom(String code) {
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room != null && room.isReserved() && rooms.remove(code, room)) roomCodeAllocator.release(code);
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
+        }
+    }
+
     public GameRoom getRoom(String code) {
         return rooms.get(code);
     }
 
+    public Collection<GameRoom> getRooms() {
+        return Collections.unmodifiableCollection(rooms.values());
+    }
+
     public List<Map<String, String>> getAvailableRooms() {
         List<Map<String, String>> available = new ArrayList<>();
         rooms.forEach((code, room) -> {
-            if (!room.isFinished()) {
+            RoomSnapshot snap = room.getSnapshot();
+            if (!snap.finished() && !snap.reserved()) {
                 Map<String, String> info = new HashMap<>();
                 info.put("roomCode", code);
-                info.put("hostName", room.getPlayers().get(0).getDisplayName());
-                info.put("gameMode", room.getGameMode());
-                info.put("status", room.isStarted() ? "in-game" : "waiting");
+                info.put("hostName", snap.host().displayName());
+                info.put("gameMode", snap.gameMode());
+                info.put("pacing", snap.pacing().name());
+                info.put("status", snap.started() ? "in-game" : "waiting");
                 available.add(info);
             }
         });
         return available;
     }
 
-    public boolean discardRoom(String code, String hostId) {
-        GameRoom room = rooms.get(code);
-        if (room == null || room.isStarted()) return false;
-        if (!room.getHostId().equals(hostId)) return false;
-        rooms.remove(code);
-        // Notify all players in the room that it's been discarded
-        messagingTemplate.convertAndSend("/topic/room/" + code + "/roomDiscarded",
-                (Object) Map.of("discarded", true));
-        return true;
-    }
-
-    public Player joinRoom(String code, String displayName) {
-        GameRoom room = rooms.get(code);
-        if (room == null || room.getPlayers().size() >= 8) return null;
-        if (room.isStarted()) return null;
-        String playerId = UUID.randomUUID().toString();
-        Player player = new Player(playerId, displayName, false);
-        room.getPlayers().add(player);
-        broadcastState(room);
-        return player;
+    public synchronized boolean discardRoom(String code, String hostId) {
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null || room.isStarted()) return false;
+            if (!room.getHostId().equals(hostId)) return false;
+            if (rooms.remove(code, room)) roomCodeAllocator.release(code);
+            // Notify all players in the room that it's been discarded
+            messagingTemplate.convertAndSend("/topic/room/" + code + "/roomDiscarded",
+                    (Object) Map.of("discarded", true));
+            return true;
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
+        }
     }
 
-    public String joinAsSpectator(String code) {
-        GameRoom room = rooms.get(code);
-        if (room == null) return null;
-        String spectatorId = "spec-" + UUID.randomUUID();
-        room.getSpectatorIds().add(spectatorId);
-        broadcastState(room);
-        return spectatorId;
+    public synchronized Player joinRoom(String code, String displayName) {
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null || room.isReserved() || room.getPlayers().size() >= SeatTable.MAX_SEATS) return null;
+            if (room.isStarted()) return null;
+            int slot = room.allocatePlayerSlot();
+            if (slot < 0) return null;
+            String playerId = identityService.issue(room.getRoomId(), SessionToken.PLAYER, slot);
+            Player player = new Player(playerId, displayName, false);
+            room.addPlayer(player);
+            broadcastState(room);
+            return player;
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
+        }
     }
 
-    public Player reconnect(String code, String playerId) {
-        GameRoom room = rooms.get(code);
-        if (room == null) return null;
-        Player p = room.getPlayerById(playerId);
-        if (p != null) {
-            p.setConnected(true);
-            p.setCpu(false); // Take back control from CPU if it was playing
+    public synchronized String joinAsSpectator(String code) {
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null || room.isReserved()) return null;
+            int slot = room.allocateSpectatorSlot();
+            if (slot < 0) return null;
+            String spectatorId = identityService.issue(room.getRoomId(), SessionToken.SPECTATOR, slot);
+            room.addSpectator(spectatorId);
             broadcastState(room);
-            return p;
+            return spectatorId;
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
         }
-        return null;
     }
 
-    public void leaveRoom(String code, String playerId) {
-        GameRoom room = rooms.get(code);
-        if (room == null) return;
-        // Check if spectator
-        if (room.getSpectatorIds().remove(playerId)) {
-            broadcastState(room);
-            return;
+    public synchronized Player reconnect(String code, String playerId) {
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null) return null;
+            Player p = room.getPlayerById(playerId);
+            if (p != null) {
+                p.setConnected(true);
+                p.setCpu(false); // Take back control from CPU if it was playing
+                broadcastState(room);
+                return p;
+            }
+            return null;
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
         }
-        Player p = room.getPlayerById(playerId);
-        if (p != null) {
-            p.setCents(0);
-            p.setNetWorth(0);
-            p.setConnected(false);
-            p.setCpu(true); // Let CPU take over
-            broadcastState(room);
+    }
+
+    public synchronized void leaveRoom(String code, String playerId) {
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null) return;
+            // Check if spectator
+            if (room.removeSpectator(playerId)) {
+                broadcastState(room);
+                return;
+            }
+            Player p = room.getPlayerById(playerId);
+            if (p != null) {
+                p.setCents(0);
+                p.setNetWorth(0);
+                p.setConnected(false);
+                p.setCpu(true); // Let CPU take over
+                broadcastState(room);
+                standInSealedBid(room, room.seatOf(playerId));
+            }
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
         }
     }
 
-    public boolean renamePlayer(String code, String playerId, String newName) {
-        GameRoom room = rooms.get(code);
-        if (room == null || room.isStarted()) return false;
-        Player player = room.getPlayerById(playerId);
-        if (player == null || player.isCpu()) return false;
-        player.setDisplayName(newName);
-        broadcastState(room);
-        return true;
+    public synchronized boolean renamePlayer(String code, String playerId, String newName) {
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null || room.isStarted()) return false;
+            Player player = room.getPlayerById(playerId);
+            if (player == null || player.isCpu()) return false;
+            player.setDisplayName(newName);
+            broadcastState(room);
+            return true;
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
+        }
     }
 
-    public Player addCpu(String code, String hostId) {
-        GameRoom room = rooms.get(code);
-        if (room == null || !room.getHostId().equals(hostId) || room.getPlayers().size() >= 8) return null;
-        int cpuNum = (int) room.getPlayers().stream().filter(Player::isCpu).count() + 1;
-        String cpuId = "cpu-" + UUID.randomUUID();
-        Player cpu = new Player(cpuId, "CPU " + cpuNum, true);
-        room.getPlayers().add(cpu);
-        broadcastState(room);
-        return cpu;
+    public synchronized Player addCpu(String code, String hostId) {
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null || !room.getHostId().equals(hostId) || room.getPlayers().size() >= SeatTable.MAX_SEATS) return null;
+            int cpuNum = room.cpuCount() + 1;
+            int slot = room.allocatePlayerSlot();
+            if (slot < 0) return null;
+            String cpuId = identityService.issue(room.getRoomId(), SessionToken.CPU, slot);
+            Player cpu = new Player(cpuId, "CPU " + cpuNum, true);
+            room.addPlayer(cpu);
+            broadcastState(room);
+            return cpu;
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
+        }
     }
 
-    public boolean removeCpu(String code, String hostId, String cpuId) {
-        GameRoom room = rooms.get(code);
-        if (room == null || room.isStarted() || !room.getHostId().equals(hostId)) return false;
-        Player cpu = room.getPlayerById(cpuId);
-        if (cpu == null || !cpu.isCpu()) return false;
-        room.getPlayers().remove(cpu);
-        broadcastState(room);
-        return true;
+    public synchronized boolean removeCpu(String code, String hostId, String cpuId) {
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null || room.isStarted() || !room.getHostId().equals(hostId)) return false;
+            Player cpu = room.getPlayerById(cpuId);
+            if (cpu == null || !cpu.isCpu()) return false;
+            room.removePlayer(cpu);
+            broadcastState(room);
+            return true;
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
+        }
     }
 
-    public boolean updateSettings(String code, String hostId, int winNetWorth, int startingCents) {
-        GameRoom room = rooms.get(code);
-        if (room == null || room.isStarted() || !room.getHostId().equals(hostId)) return false;
-        if (winNetWorth < 10 || winNetWorth > 200) return false;
-        if (startingCents < 1 || startingCents > 100) return false;
-        room.setWinNetWorth(winNetWorth);
-        room.setStartingCents(startingCents);
-        broadcastState(room);
-        return true;
+    public synchronized boolean updateSettings(String code, String hostId, int winNetWorth, int startingCents) {
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null || room.isStarted() || !room.getHostId().equals(hostId)) return false;
+            if (winNetWorth < 10 || winNetWorth > 200) return false;
+            if (startingCents < 1 || startingCents > 100) return false;
+            room.setWinNetWorth(winNetWorth);
+            room.setStartingCents(startingCents);
+            broadcastState(room);
+            return true;
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
+        }
     }
 
-    public boolean startGame(String code, String hostId) {
-        GameRoom room = rooms.get(code);
-        if (room == null || !room.getHostId().equals(hostId) || room.getPlayers().size() < 2) return false;
-        // Apply starting cents to all players
-        for (Player p : room.getPlayers()) {
-            p.setCents(room.getStartingCents());
-        }
-        room.setStarted(true);
-        room.setStartingPlayerIndex(0);
-        room.setRoundNumber(0);
-        // Notify all players that game has started
-        messagingTemplate.convertAndSend("/topic/room/" + room.getRoomCode() + "/gameStarted",
-                (Object) Map.of("started", true, "gameMode", room.getGameMode()));
-        startNewRound(room);
-        return true;
+    public synchronized boolean startGame(String code, String hostId) {
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null || !room.getHostId().equals(hostId) || room.getPlayers().size() < 2) return false;
+            // Matchmade and quick-play tables are started by a timer; a second start would re-deal
+            if (room.isStarted()) return false;
+            // Apply starting cents to all players
+            for (Player p : room.getPlayers()) {
+                p.setCents(room.getStartingCents());
+            }
+            room.setStarted(true);
+            room.setStartingPlayerIndex(0);
+            room.setRoundNumber(0);
+            publish("game_start", room, Map.of("players", room.getPlayers().size(),
+                    "cpus", room.cpuCount(), "pacing", room.getPacing().name()));
+            // Notify all players that game has started
+            messagingTemplate.convertAndSend("/topic/room/" + room.getRoomCode() + "/gameStarted",
+                    (Object) Map.of("started", true, "gameMode", room.getGameMode()));
+            startNewRound(room);
+            return true;
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
+        }
     }
 
     public synchronized boolean placeBid(String code, String playerId, int bidAmount) {
-        GameRoom room = rooms.get(code);
-        if (room == null || room.isFinished() || !room.isStarted()) return false;
-        room.touchActivity();
-
-        Player current = room.getPlayers().get(room.getCurrentPlayerIndex());
-        if (!current.getId().equals(playerId)) return false;
-        if (bidAmount <= room.getCurrentHighBid() || bidAmount > current.getCents()) return false;
-
-        cancelTimer(room);
-
-        // Refund previous high bidder
-        refundHighBidder(room);
-
-        // Deduct from current bidder
-        current.setCents(current.getCents() - bidAmount);
-        room.setCurrentHighBid(bidAmount);
-        room.setCurrentHighBidderId(playerId);
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null || room.isFinished() || !room.isStarted()) return false;
+            room.touchActivity();
+            if (room.isSealedMode()) return submitSealedBid(room, room.seatOf(playerId), bidAmount);
+
+            if (room.seatOf(playerId) != room.getCurrentPlayerIndex()) return false;
+            Player current = room.getPlayers().get(room.getCurrentPlayerIndex());
+            if (bidAmount <= room.getCurrentHighBid() || bidAmount > current.getCents()) return false;
+
+            cancelTimer(room);
+
+            // Refund previous high bidder
+            refundHighBidder(room);
+
+            // Deduct from current bidder
+            current.setCents(current.getCents() - bidAmount);
+            room.setCurrentHighBid(bidAmount);
+            room.setCurrentHighBidderId(playerId);
+            if (analytics.isEnabled()) {
+                publish("bid", room, Map.of("seat", room.getCurrentPlayerIndex(), "cpu", current.isCpu(),
+                        "amount", bidAmount, "cents", current.getCents()));
+            }
 
-        // Advance first, then broadcast the updated state together
-        advanceToNextBidder(room);
-        return true;
+            // Advance first, then broadcast the updated state together
+            advanceToNextBidder(room);
+            return true;
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
+        }
     }
 
     public synchronized boolean pass(String code, String playerId) {
-        GameRoom room = rooms.get(code);
-        if (room == null || room.isFinished() || !room.isStarted()) return false;
-        room.touchActivity();
-
-        Player current = room.getPlayers().get(room.getCurrentPlayerIndex());
-        if (!current.getId().equals(playerId)) return false;
-
-        cancelTimer(room);
-        current.setPassedThisRound(true);
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null || room.isFinished() || !room.isStarted()) return false;
+            room.touchActivity();
+            if (room.isSealedMode()) return submitSealedBid(room, room.seatOf(playerId), 0);
+
+            if (room.seatOf(playerId) != room.getCurrentPlayerIndex()) return false;
+            Player current = room.getPlayers().get(room.getCurrentPlayerIndex());
+
+            cancelTimer(room);
+            current.setPassedThisRound(true);
+            if (analytics.isEnabled()) {
+                publish("pass", room, Map.of("seat", room.getCurrentPlayerIndex(), "cpu", current.isCpu(),
+                        "highBid", room.getCurrentHighBid()));
+            }
 
-        // Check if only one active bidder remains
-        if (room.activeBiddersCount() <= 1) {
-            resolveRound(room);
-        } else {
-            // Advance BEFORE broadcasting to avoid showing stale turn to the next player
-            advanceToNextBidder(room);
+            // Check if only one active bidder remains
+            if (room.activeBiddersCount() <= 1) {
+                resolveRound(room);
+            } else {
+                // Advance BEFORE broadcasting to avoid showing stale turn to the next player
+                advanceToNextBidder(room);
+            }
+            return true;
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
         }
-        return true;
     }
 
     // ── Rage Mode: Bribe ──
     public synchronized Map<String, Object> bribePlayer(String code, String briberId, String targetId, int amount) {
-        GameRoom room = rooms.get(code);
-        if (room == null || !room.isRageMode() || room.isFinished() || !room.isStarted()) {
-            return Map.of("error", "Cannot bribe in this room");
-        }
-        Player briber = room.getPlayerById(briberId);
-        Player target = room.getPlayerById(targetId);
-        if (briber == null || target == null || briber.getId().equals(target.getId())) {
-            return Map.of("error", "Invalid bribe target");
-        }
-        if (amount < 1 || amount > 4) {
-            return Map.of("error", "Bribe amount must be between 1 and 4");
-        }
-        if (briber.getCents() < amount) {
-            return Map.of("error", "Not enough Ant-cents to bribe");
-        }
-        // Cap: target's bribe tax can't exceed 40% (each cent = +10%)
-        int maxAdditional = (40 - target.getBribeTaxPercent()) / 10;
-        if (maxAdditional <= 0) {
-            return Map.of("error", "Target already at max bribe tax (40%)");
-        }
-        int effectiveAmount = Math.min(amount, maxAdditional);
-
-        // Deduct cents from briber, add to vault
-        briber.setCents(briber.getCents() - effectiveAmount);
-        room.setKingsVault(room.getKingsVault() + effectiveAmount);
-
-        // Add 10% tax per cent to target (capped at 40%)
-        target.setBribeTaxPercent(target.getBribeTaxPercent() + effectiveAmount * 10);
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null || !room.isRageMode() || room.isFinished() || !room.isStarted()) {
+                return Map.of("error", "Cannot bribe in this room");
+            }
+            Player briber = room.getPlayerById(briberId);
+            Player target = room.getPlayerById(targetId);
+            if (briber == null || target == null || briber.getId().equals(target.getId())) {
+                return Map.of("error", "Invalid bribe target");
+            }
+            if (amount < 1 || amount > 4) {
+                return Map.of("error", "Bribe amount must be between 1 and 4");
+            }
+            if (briber.getCents() < amount) {
+                return Map.of("error", "Not enough Ant-cents to bribe");
+            }
+            // Cap: target's bribe tax can't exceed 40% (each cent = +10%)
+            int maxAdditional = (40 - target.getBribeTaxPercent()) / 10;
+            if (maxAdditional <= 0) {
+                return Map.of("error", "Target already at max bribe tax (40%)");
+            }
+            int effectiveAmount = Math.min(amount, maxAdditional);
+
+            // Deduct cents from briber, add to vault
+            briber.setCents(briber.getCents() - effectiveAmount);
+            room.setKingsVault(room.getKingsVault() + effectiveAmount);
+
+            // Add 10% tax per cent to target (capped at 40%)
+            target.setBribeTaxPercent(target.getBribeTaxPercent() + effectiveAmount * 10);
+            if (analytics.isEnabled()) {
+                publish("bribe", room, Map.of("seat", room.seatOf(briberId), "cpu", briber.isCpu(),
+                        "targetSeat", room.seatOf(targetId), "amount", effectiveAmount,
+                        "targetTaxPercent", target.getBribeTaxPercent()));
+            }
 
-        // Anonymous notification
-        messagingTemplate.convertAndSend("/topic/room/" + room.getRoomCode() + "/rageEvent",
-                (Object) Map.of(
-                        "type", "bribe",
-                        "message", "Someone whispered to the King... " + target.getDisplayName() + "'s tax has increased by +" + (effectiveAmount * 10) + "%!",
-                        "targetId", targetId
-                ));
+            // Anonymous notification
+            messagingTemplate.convertAndSend("/topic/room/" + room.getRoomCode() + "/rageEvent",
+                    (Object) Map.of(
+                            "type", "bribe",
+                            "message", "Someone whispered to the King... " + target.getDisplayName() + "'s tax has increased by +" + (effectiveAmount * 10) + "%!",
+                            "targetId", targetId
+                    ));
 
-        broadcastState(room);
-        return Map.of("status", "bribed", "effectiveAmount", effectiveAmount);
+            broadcastState(room);
+            return Map.of("status", "bribed", "effectiveAmount", effectiveAmount);
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
+        }
     }
 
     // ── Rage Mode: King's Loan ──
     public synchronized Map<String, Object> takeLoan(String code, String playerId) {
-        GameRoom room = rooms.get(code);
-        if (room == null || !room.isRageMode() || room.isFinished() || !room.isStarted()) {
-            return Map.of("error", "Cannot take loan in this room");
-        }
-        Player player = room.getPlayerById(playerId);
-        if (player == null) {
-            return Map.of("error", "Player not found");
-        }
-        if (player.getCents() >= 3) {
-            return Map.of("error", "You must have fewer than 3 Ant-cents to take a loan");
-        }
-        int loanAmount = 5;
-        if (room.getKingsVault() < loanAmount) {
-            return Map.of("error", "Not enough Ant-cents in the King's Vault (need 5¢)");
-        }
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null || !room.isRageMode() || room.isFinished() || !room.isStarted()) {
+                return Map.of("error", "Cannot take loan in this room");
+            }
+            Player player = room.getPlayerById(playerId);
+            if (player == null) {
+                return Map.of("error", "Player not found");
+            }
+            if (player.getCents() >= 3) {
+                return Map.of("error", "You must have fewer than 3 Ant-cents to take a loan");
+            }
+            int loanAmount = 5;
+            if (room.getKingsVault() < loanAmount) {
+                return Map.of("error", "Not enough Ant-cents in the King's Vault (need 5¢)");
+            }
 
-        // Transfer 5¢ from vault to player
-        room.setKingsVault(room.getKingsVault() - loanAmount);
-        player.setCents(player.getCents() + loanAmount);
+            // Transfer 5¢ from vault to player
+            room.setKingsVault(room.getKingsVault() - loanAmount);
+            player.setCents(player.getCents() + loanAmount);
 
-        // Penalty: 35% of net worth (rounded to nearest whole number, minimum 3 karats)
-        int penalty = Math.max(3, (int) Math.round(player.getNetWorth() * 0.35));
-        player.setNetWorth(Math.max(0, player.getNetWorth() - penalty));
+            // Penalty: 35% of net worth (rounded to nearest whole number, minimum 3 karats)
+            int penalty = Math.max(3, (int) Math.round(player.getNetWorth() * 0.35));
+            player.setNetWorth(Math.max(0, player.getNetWorth() - penalty));
+            if (analytics.isEnabled()) {
+                publish("loan", room, Map.of("seat", room.seatOf(playerId), "cpu", player.isCpu(),
+                        "amount", loanAmount, "penalty", penalty, "vault", room.getKingsVault()));
+            }
 
-        // Public notification
-        messagingTemplate.convertAndSend("/topic/room/" + room.getRoomCode() + "/rageEvent",
-                (Object) Map.of(
-                        "type", "loan",
-                        "message", player.getDisplayName() + " took a desperate loan! Their net worth dropped by " + penalty + "!",
-                        "playerId", playerId,
-                        "penalty", penalty,
-                        "amount", loanAmount
-                ));
+            // Public notification
+            messagingTemplate.convertAndSend("/topic/room/" + room.getRoomCode() + "/rageEvent",
+                    (Object) Map.of(
+                            "type", "loan",
+                            "message", player.getDisplayName() + " took a desperate loan! Their net worth dropped by " + penalty + "!",
+                            "playerId", playerId,
+                            "penalty", penalty,
+                            "amount", loanAmount
+                    ));
 
-        broadcastState(room);
-        return Map.of("status", "loan_taken", "penalty", penalty, "amount", loanAmount);
+            broadcastState(room);
+            return Map.of("status", "loan_taken", "penalty", penalty, "amount", loanAmount);
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
+        }
     }
 
     private void refundHighBidder(GameRoom room) {
@@ -333,10 +612,14 @@ public class GameService {
     }
 
     private void resolveRound(GameRoom room) {
+        resolveRound(room, new HashMap<>(), null);
+    }
+
+    // sealedSeatBids is the analytics twin of roundResult's sealedBids, by seat instead of name
+    private void resolveRound(GameRoom room, Map<String, Object> roundResult, List<Map<String, Object>> sealedSeatBids) {
         cancelTimer(room);
         room.touchActivity();
         String winnerId = room.getCurrentHighBidderId();
-        Map<String, Object> roundResult = new HashMap<>();
 
         // Check if this is a Jackpot Round (every 10th round in Rage mode)
         boolean isJackpotRound = room.isRageMode() && room.getRoundNumber() > 0 && room.getRoundNumber() % 11 == 0;
@@ -363,6 +646,9 @@ public class GameService {
                 room.setFinished(true);
                 room.setWinnerId(winnerId);
                 cancelTimer(room); // Ensure timer is cancelled
+                matchHistoryService.record(MatchRecord.of(room));
+                publish("game_end", room, Map.of("winnerSeat", room.seatOf(winnerId),
+                        "winnerCpu", winner.isCpu(), "netWorth", winner.getNetWorth()));
                 broadcastState(room);
                 messagingTemplate.convertAndSend("/topic/room/" + room.getRoomCode() + "/winner",
                         (Object) Map.of("winnerId", winnerId, "winnerName", winner.getDisplayName()));
@@ -380,18 +666,19 @@ public class GameService {
         for (Player p : room.getPlayers()) {
             p.setCents(p.getCents() + 1);
         }
+        // No state broadcast until the income animation; publish so readers see the result now
+        room.publishSnapshot();
 
         messagingTemplate.convertAndSend("/topic/room/" + room.getRoomCode() + "/roundResult", (Object) roundResult);
+        if (analytics.isEnabled()) publish("round_result", room, roundEvent(room, winnerId, roundResult, sealedSeatBids));
 
         // Broadcast income phase event for coin animation (after round result banner disappears)
-        scheduler.schedule(() -> {
-            synchronized (this) {
-                if (room.isFinished()) return;
-                messagingTemplate.convertAndSend("/topic/room/" + room.getRoomCode() + "/incomePhase",
-                        (Object) Map.of("amount", 1, "message", "You Got: +1¢"));
-                broadcastState(room);
-            }
-        }, 5, TimeUnit.SECONDS);
+        schedule(room, () -> {
+            if (room.isFinished()) return;
+            messagingTemplate.convertAndSend("/topic/room/" + room.getRoomCode() + "/incomePhase",
+                    (Object) Map.of("amount", 1, "message", "You Got: +1¢"));
+            broadcastState(room);
+        }, room.getPacing().income().toMillis());
 
         // Advance starting player clockwise
         room.setStartingPlayerIndex((room.getStartingPlayerIndex() + 1) % room.getPlayers().size());
@@ -399,17 +686,29 @@ public class GameService {
         // Rage mode: Check if taxation phase should trigger (every 5 rounds)
         if (room.isRageMode() && room.getRoundNumber() % 5 == 0 && room.getRoundNumber() > 0) {
             // Delay taxation phase to show after round result + income animation
-            scheduler.schedule(() -> {
-                synchronized (this) { executeTaxationPhase(room); }
-            }, 8, TimeUnit.SECONDS);
+            schedule(room, () -> executeTaxationPhase(room), room.getPacing().roundGap().toMillis());
         } else {
             // Delay before next round for players to read results + income animation
-            scheduler.schedule(() -> {
-                synchronized (this) { startNewRound(room); }
-            }, 8, TimeUnit.SECONDS);
+            schedule(room, () -> startNewRound(room), room.getPacing().roundGap().toMillis());
         }
     }
 
+    private static final List<String> ROUND_EVENT_FIELDS =
+            List.of("purity", "bidPaid", "jackpotRound", "jackpotAmount", "discarded");
+
+    // roundResult goes to clients with display names; analytics gets the same result by seat
+    private static Map<String, Object> roundEvent(GameRoom room, String winnerId, Map<String, Object> roundResult,
+                                                  List<Map<String, Object>> sealedSeatBids) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("winnerSeat", winnerId == null ? -1 : room.seatOf(winnerId));
+        for (String field : ROUND_EVENT_FIELDS) {
+            Object value = roundResult.get(field);
+            if (value != null) event.put(field, value);
+        }
+        if (sealedSeatBids != null) event.put("sealedBids", sealedSeatBids);
+        return event;
+    }
+
     // ── Rage Mode: Taxation Phase ──
     private synchronized void executeTaxationPhase(GameRoom room) {
         if (room.isFinished()) return;
@@ -418,6 +717,7 @@ public class GameService {
         room.setTaxationPhaseActive(true);
         Map<String, Object> taxResult = new HashMap<>();
         List<Map<String, Object>> taxDetails = new ArrayList<>();
+        List<Map<String, Object>> taxEvents = analytics.isEnabled() ? new ArrayList<>() : null;
         int totalTaxCollected = 0;
 
         for (Player p : room.getPlayers()) {
@@ -442,6 +742,10 @@ public class GameService {
             detail.put("taxAmount", taxAmount);
             detail.put("hadBribe", bribeTax > 0);
             taxDetails.add(detail);
+            if (taxEvents != null) {
+                taxEvents.add(Map.of("seat", room.seatOf(p.getId()), "taxPercent", totalTaxPercent,
+                        "taxAmount", taxAmount, "hadBribe", bribeTax > 0));
+            }
 
             // Reset bribe tax after taxation
             p.setBribeTaxPercent(0);
@@ -457,53 +761,118 @@ public class GameService {
 
         // Set waiting for confirmation BEFORE sending events so frontend doesn't close overlay
         room.setWaitingForTaxConfirmation(true);
-        room.getTaxConfirmedPlayerIds().clear();
-        // Auto-confirm for CPU players and spectators
+        // Auto-confirm CPUs, spectators and players past their absence grace; the rest get theirs when it runs out
+        room.startTaxConfirmation(System.currentTimeMillis() - absenceGraceMillis);
         for (Player p : room.getPlayers()) {
-            if (p.isCpu()) {
-                room.getTaxConfirmedPlayerIds().add(p.getId());
+            if (!p.isCpu() && !p.isConnected() && graceLeft(p) > 0) {
+                standInAfter(room, p.getId(), graceLeft(p));
             }
         }
-        for (String specId : room.getSpectatorIds()) {
-            room.getTaxConfirmedPlayerIds().add(specId);
-        }
 
         messagingTemplate.convertAndSend("/topic/room/" + room.getRoomCode() + "/rageEvent", (Object) taxResult);
+        if (taxEvents != null) {
+            publish("taxation", room, Map.of("seats", taxEvents, "totalCollected", totalTaxCollected,
+                    "vaultTotal", room.getKingsVault()));
+        }
         broadcastState(room);
-        // Fallback: auto-continue after 30 seconds if not all confirmed
-        scheduler.schedule(() -> {
-            synchronized (this) {
-                if (room.isWaitingForTaxConfirmation() && !room.isFinished()) {
-                    room.setWaitingForTaxConfirmation(false);
-                    room.getTaxConfirmedPlayerIds().clear();
-                    broadcastState(room);
-                    startNewRound(room);
-                }
+        // Fallback: auto-continue after the profile's tax timeout if not all confirmed
+        schedule(room, () -> {
+            if (room.isWaitingForTaxConfirmation() && !room.isFinished()) {
+                room.setWaitingForTaxConfirmation(false);
+                room.clearTaxConfirmations();
+                broadcastState(room);
+                startNewRound(room);
             }
-        }, 30, TimeUnit.SECONDS);
+        }, room.getPacing().taxFallback().toMillis());
     }
 
     // ── Rage Mode: Confirm Tax ──
     public synchronized Map<String, Object> confirmTax(String code, String playerId) {
-        GameRoom room = rooms.get(code);
-        if (room == null || !room.isWaitingForTaxConfirmation()) {
-            return Map.of("error", "Not waiting for tax confirmation");
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null || !room.isWaitingForTaxConfirmation()) {
+                return Map.of("error", "Not waiting for tax confirmation");
+            }
+            int seat = room.seatOf(playerId);
+            if (seat >= 0) room.confirmTax(seat);
+            broadcastState(room);
+            finishTaxPhaseIfConfirmed(room);
+            return Map.of("status", "confirmed");
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
         }
-        room.getTaxConfirmedPlayerIds().add(playerId);
-        broadcastState(room);
+    }
 
+    private void finishTaxPhaseIfConfirmed(GameRoom room) {
         // Check if all human players confirmed
-        long humanCount = room.getPlayers().stream().filter(p -> !p.isCpu()).count();
-        long confirmedHumans = room.getPlayers().stream()
-                .filter(p -> !p.isCpu() && room.getTaxConfirmedPlayerIds().contains(p.getId()))
-                .count();
-        if (confirmedHumans >= humanCount) {
+        if (room.allHumansConfirmedTax()) {
             room.setWaitingForTaxConfirmation(false);
-            room.getTaxConfirmedPlayerIds().clear();
+            room.clearTaxConfirmations();
             broadcastState(room);
             startNewRound(room);
         }
-        return Map.of("status", "confirmed");
+    }
+
+    // ── Presence (driven by STOMP session events) ──
+    public synchronized void markPresent(String code, String id) {
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null) return;
+            Player p = room.getPlayerById(id);
+            // A player who left was handed to the CPU; only /api/reconnect takes that back
+            if (p == null || p.isConnected() || p.isCpu()) return;
+            p.setConnected(true);
+            broadcastState(room);
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
+        }
+    }
+
+    public synchronized void markAbsent(String code, String id) {
+        long t0 = enter();
+        try {
+            GameRoom room = rooms.get(code);
+            if (room == null) return;
+            // Spectators are gone for good once their last session closes
+            if (room.removeSpectator(id)) {
+                broadcastState(room);
+                return;
+            }
+            int seat = room.seatOf(id);
+            if (seat < 0) return;
+            Player p = room.getPlayers().get(seat);
+            if (p.isCpu() || !p.isConnected()) return;
+            p.setConnected(false);
+            broadcastState(room);
+            if (!room.isStarted() || room.isFinished()) return;
+            if (!room.isWaitingForTaxConfirmation() && !room.isSealedMode()) {
+                // Their turn is running: the CPU takes it after the grace period instead of the timer
+                if (room.getCurrentPlayerIndex() == seat) handleCpuTurnIfNeeded(room);
+                return;
+            }
+            standInAfter(room, id, absenceGraceMillis);
+        } finally {
+            exit(charged(code), RoomCost.COMMANDS, t0);
+        }
+    }
+
+    // Confirms tax or bids for a player still absent once the delay (what is left of their grace) runs out
+    private void standInAfter(GameRoom room, String id, long delayMillis) {
+        schedule(room, () -> {
+            // Seats may have shifted, and a reload may already have brought the player back
+            int now = room.seatOf(id);
+            if (now < 0 || room.isFinished()) return;
+            Player q = room.getPlayers().get(now);
+            if (q.isCpu() || q.isConnected()) return;
+            if (room.isWaitingForTaxConfirmation()) {
+                room.confirmTax(now);
+                finishTaxPhaseIfConfirmed(room);
+            } else {
+                standInSealedBid(room, now);
+            }
+        }, delayMillis);
     }
 
     private synchronized void startNewRound(GameRoom room) {
@@ -519,8 +888,11 @@ public class GameService {
         room.setCurrentHighBid(0);
         room.setCurrentHighBidderId(null);
         room.setCurrentPlayerIndex(room.getStartingPlayerIndex());
-        for (Player p : room.getPlayers()) {
-            p.setPassedThisRound(false);
+        room.resetPassed();
+
+        if (room.isSealedMode()) {
+            openSealedBidding(room);
+            return;
         }
 
         // CPU Rage mode actions (bribing & loans) at start of each round
@@ -531,18 +903,129 @@ public class GameService {
         handleCpuTurnIfNeeded(room);
     }
 
+    // ── Sealed Mode: simultaneous bids, one resolution per round ──
+    private void openSealedBidding(GameRoom room) {
+        room.clearSealedBids();
+        room.setSealedBidOpen(true);
+        long windowMs = room.getPacing().turn().toMillis();
+        room.setSealedBidDeadline(System.currentTimeMillis() + windowMs);
+        // Nothing is revealed until the window closes, so CPUs and stand-ins can bid right away;
+        // players still inside their absence grace are covered by markAbsent's task
+        for (int seat = 0; seat < room.getPlayers().size(); seat++) {
+            Player p = room.getPlayers().get(seat);
+            if (p.isCpu() || (!p.isConnected() && graceLeft(p) == 0)) recordSealedBid(room, seat, cpuSealedBid(room, p));
+        }
+        broadcastState(room);
+        if (room.allSealedBidsIn()) {
+            resolveSealedRound(room);
+            return;
+        }
+        final int timerRound = room.getRoundNumber();
+        room.setTurnTimer(schedule(room, () -> {
+            if (room.isFinished() || !room.isSealedBidOpen() || room.getRoundNumber() != timerRound) return;
+            resolveSealedRound(room);
+        }, windowMs));
+    }
+
+    private boolean submitSealedBid(GameRoom room, int seat, int amount) {
+        if (seat < 0 || !room.isSealedBidOpen() || room.hasSealedBid(seat)) return false;
+        if (amount < 0 || amount > room.getPlayers().get(seat).getCents()) return false;
+        recordSealedBid(room, seat, amount);
+        if (room.allSealedBidsIn()) {
+            resolveSealedRound(room);
+            return true;
+        }
+        // No per-bid broadcast: everyone else learns at resolution. Lock-free readers and
+        // the submitter's own view (sealedBidSubmitted) still move on now.
+        room.publishSnapshot();
+        Player p = room.getPlayers().get(seat);
+        if (!p.isCpu() && p.isConnected()) {
+            messagingTemplate.convertAndSend(p.getStateDestination(), (Object) getPublicState(room, p.getId()));
+        }
+        return true;
+    }
+
+    private void recordSealedBid(GameRoom room, int seat, int amount) {
+        Player p = room.getPlayers().get(seat);
+        room.submitSealedBid(seat, amount);
+        if (analytics.isEnabled()) {
+            publish("sealed_bid", room, Map.of("seat", seat, "cpu", p.isCpu() || !p.isConnected(),
+                    "amount", amount, "cents", p.getCents()));
+        }
+    }
+
+    // A player who left or dropped mid-window gets a CPU bid instead of an automatic pass
+    private void standInSealedBid(GameRoom room, int seat) {
+        if (seat < 0 || !room.isSealedMode() || !room.isSealedBidOpen() || room.hasSealedBid(seat)) return;
+        submitSealedBid(room, seat, cpuSealedBid(room, room.getPlayers().get(seat)));
+    }
+
+    private void resolveSealedRound(GameRoom room) {
+        cancelTimer(room);
+        room.setSealedBidOpen(false);
+        int size = room.getPlayers().size();
+        int winnerSeat = -1;
+        int winningBid = 0;
+        List<Map<String, Object>> bids = new ArrayList<>();
+        List<Map<String, Object>> seatBids = analytics.isEnabled() ? new ArrayList<>() : null;
+        // Walk clockwise from the starting player, so ties go to whoever would have bid first in classic
+        for (int i = 0; i < size; i++) {
+            int seat = (room.getStartingPlayerIndex() + i) % size;
+            Player p = room.getPlayers().get(seat);
+            int bid = room.hasSealedBid(seat) ? room.getSealedBid(seat) : 0;
+            bids.add(Map.of("playerName", p.getDisplayName(), "bid", bid));
+            if (seatBids != null) seatBids.add(Map.of("seat", seat, "bid", bid));
+            if (bid > winningBid) {
+                winningBid = bid;
+                winnerSeat = seat;
+            }
+            p.setPassedThisRound(bid == 0);
+        }
+        if (winnerSeat >= 0) {
+            Player winner = room.getPlayers().get(winnerSeat);
+            winner.setCents(winner.getCents() - winningBid);
+            room.setCurrentHighBid(winningBid);
+            room.setCurrentHighBidderId(winner.getId());
+        }
+        room.clearSealedBids();
+        Map<String, Object> roundResult = new HashMap<>();
+        roundResult.put("sealedBids", bids);
+        resolveRound(room, roundResult, seatBids);
+    }
+
+    // Blind valuation: no other bids are visible, so price the bar against our own position only
+    private int cpuSealedBid(GameRoom room, Player cpu) {
+        int purity = room.getCurrentGoldBarPurity();
+        int myCents = cpu.getCents();
+        if (myCents <= 0) return 0;
+        int targetNW = room.getWinNetWorth();
+
+        // This bar wins the game: bid most of the purse
+        if (cpu.getNetWorth() + purity >= targetNW) return Math.max(1, (int) (myCents * 0.7));
+
+        // Someone else could win with this bar: bid to block
+        for (Player p : room.getPlayers()) {
+            if (p != cpu && p.getNetWorth() + purity >= targetNW) return Math.max(1, (int) (myCents * 0.6));
+        }
+
+        if (purity < 5) return random.nextInt(3) == 0 ? 1 : 0;
+        // Spend in proportion to purity, with a little noise so CPUs don't tie each other
+        int bid = (int) Math.round(myCents * (purity / 24.0) * 0.6) + random.nextInt(2);
+        return Math.max(1, Math.min(myCents, bid));
+    }
+
     private void advanceToNextBidder(GameRoom room) {
         int size = room.getPlayers().size();
         int idx = room.getCurrentPlayerIndex();
-        String highBidderId = room.getCurrentHighBidderId();
+        int highBidderSeat = room.seatOf(room.getCurrentHighBidderId());
         for (int i = 0; i < size; i++) {
             idx = (idx + 1) % size;
             Player p = room.getPlayers().get(idx);
             if (!p.isPassedThisRound()) {
                 // Skip the current highest bidder — they can't outbid themselves
-                if (p.getId().equals(highBidderId)) {
+                if (idx == highBidderSeat) {
                     // If this is the only active bidder left, resolve
-                    if (room.activeBiddersCount() <= 1 || isOnlyNonPassedBesideHighBidder(room, highBidderId)) {
+                    if (room.activeBiddersCount() <= 1 || room.isOnlyActiveBesides(highBidderSeat)) {
                         resolveRound(room);
                         return;
                     }
@@ -559,18 +1042,11 @@ public class GameService {
         resolveRound(room);
     }
 
-    private boolean isOnlyNonPassedBesideHighBidder(GameRoom room, String highBidderId) {
-        for (Player p : room.getPlayers()) {
-            if (!p.isPassedThisRound() && !p.getId().equals(highBidderId)) {
-                return false;
-            }
-        }
-        return true;
-    }
-
     private void handleCpuTurnIfNeeded(GameRoom room) {
         Player current = room.getPlayers().get(room.getCurrentPlayerIndex());
-        if (!current.isCpu()) return;
+        // Disconnected humans are played by the CPU once their grace is up, without the think delay
+        boolean standIn = !current.isCpu() && !current.isConnected();
+        if (!current.isCpu() && !standIn) return;
 
         // Safety check: if this CPU has already passed, skip immediately
         if (current.isPassedThisRound()) {
@@ -580,17 +1056,31 @@ public class GameService {
 
         final String cpuId = current.getId();
         final int expectedIndex = room.getCurrentPlayerIndex();
-        scheduler.schedule(() -> {
-            synchronized (this) {
-                if (room.isFinished()) return;
-                // Verify the turn hasn't moved to a different player
-                if (room.getCurrentPlayerIndex() != expectedIndex) return;
-                Player cpu = room.getPlayers().get(room.getCurrentPlayerIndex());
-                if (!cpu.getId().equals(cpuId)) return;
-                if (cpu.isPassedThisRound()) return;
-                executeCpuTurn(room, cpu);
-            }
-        }, 2 + random.nextInt(3), TimeUnit.SECONDS);
+        schedule(room, () -> {
+            if (room.isFinished()) return;
+            // Verify the turn hasn't moved to a different player
+            if (room.getCurrentPlayerIndex() != expectedIndex) return;
+            Player cpu = room.getPlayers().get(room.getCurrentPlayerIndex());
+            if (!cpu.getId().equals(cpuId)) return;
+            if (cpu.isPassedThisRound()) return;
+            if (!cpu.isCpu() && cpu.isConnected()) return; // player came back in time
+            executeCpuTurn(room, cpu);
+        }, standIn ? graceLeft(current) : cpuThinkMillis(room.getPacing()));
+    }
+
+    private long graceLeft(Player p) {
+        return Math.max(0, p.getAbsentSince() + absenceGraceMillis - System.currentTimeMillis());
+    }
+
+    // Sandboxes seat an absent host on purpose; there is no reload to wait for
+    void setAbsenceGraceMillis(long millis) {
+        this.absenceGraceMillis = millis;
+    }
+
+    private long cpuThinkMillis(Pacing pacing) {
+        long min = pacing.cpuThinkMin().toMillis();
+        long max = Math.max(min, pacing.cpuThinkMax().toMillis());
+        return min + random.nextLong(max - min + 1);
     }
 
     // ── Advanced CPU AI ──
@@ -757,19 +1247,17 @@ public class GameService {
         final String timerPlayerId = room.getPlayers().get(room.getCurrentPlayerIndex()).getId();
         final int timerRound = room.getRoundNumber();
         final int timerIndex = room.getCurrentPlayerIndex();
-        ScheduledFuture<?> timer = scheduler.schedule(() -> {
-            synchronized (this) {
-                if (room.isFinished()) return;
-                // Verify round hasn't changed (prevents stale timer from previous round)
-                if (room.getRoundNumber() != timerRound) return;
-                // Verify the turn index and player haven't changed
-                if (room.getCurrentPlayerIndex() != timerIndex) return;
-                Player current = room.getPlayers().get(room.getCurrentPlayerIndex());
-                if (!current.getId().equals(timerPlayerId)) return;
-                // Auto-pass on timeout
-                pass(room.getRoomCode(), current.getId());
-            }
-        }, 20, TimeUnit.SECONDS);
+        ScheduledFuture<?> timer = schedule(room, () -> {
+            if (room.isFinished()) return;
+            // Verify round hasn't changed (prevents stale timer from previous round)
+            if (room.getRoundNumber() != timerRound) return;
+            // Verify the turn index and player haven't changed
+            if (room.getCurrentPlayerIndex() != timerIndex) return;
+            Player current = room.getPlayers().get(room.getCurrentPlayerIndex());
+            if (!current.getId().equals(timerPlayerId)) return;
+            // Auto-pass on timeout
+            pass(room.getRoomCode(), current.getId());
+        }, room.getPacing().turn().toMillis());
         room.setTurnTimer(timer);
     }
 
@@ -781,54 +1269,68 @@ public class GameService {
     }
 
     public Map<String, Object> getPublicState(GameRoom room, String playerId) {
+        return getPublicState(room.getSnapshot(), playerId);
+    }
+
+    // Built only from the published snapshot, so it is safe to call without the game lock
+    public Map<String, Object> getPublicState(RoomSnapshot room, String playerId) {
         Map<String, Object> state = new HashMap<>();
-        state.put("roomCode", room.getRoomCode());
-        state.put("started", room.isStarted());
-        state.put("finished", room.isFinished());
-        state.put("currentGoldBarPurity", room.getCurrentGoldBarPurity());
-        state.put("currentHighBid", room.getCurrentHighBid());
-        state.put("currentHighBidderId", room.getCurrentHighBidderId());
-        state.put("winnerId", room.getWinnerId());
-        state.put("gameMode", room.getGameMode());
-        state.put("roundNumber", room.getRoundNumber());
+        state.put("roomCode", room.roomCode());
+        state.put("started", room.started());
+        state.put("finished", room.finished());
+        state.put("currentGoldBarPurity", room.currentGoldBarPurity());
+        state.put("currentHighBid", room.currentHighBid());
+        state.put("currentHighBidderId", room.currentHighBidderId());
+        state.put("winnerId", room.winnerId());
+        state.put("gameMode", room.gameMode());
+        state.put("pacing", room.pacing().name());
+        state.put("turnSeconds", room.pacing().turn().toMillis() / 1000.0);
+        // Round-result banners stay up until the income animation
+        state.put("incomeSeconds", room.pacing().income().toMillis() / 1000.0);
+        state.put("roundNumber", room.roundNumber());
 
         // Rage mode fields
         if (room.isRageMode()) {
-            state.put("kingsVault", room.getKingsVault());
-            int taxRemainder = room.getRoundNumber() % 5;
+            state.put("kingsVault", room.kingsVault());
+            int taxRemainder = room.roundNumber() % 5;
             state.put("nextTaxRound", taxRemainder == 0 ? 0 : 5 - taxRemainder);
-            state.put("waitingForTaxConfirmation", room.isWaitingForTaxConfirmation());
-            state.put("taxConfirmedCount", room.getTaxConfirmedPlayerIds().size());
-            state.put("taxTotalPlayers", room.getPlayers().size());
+            state.put("waitingForTaxConfirmation", room.waitingForTaxConfirmation());
+            state.put("taxConfirmedCount", room.taxConfirmedCount());
+            state.put("taxTotalPlayers", room.players().size());
             // Jackpot round indicator
-            boolean isJackpot = room.getRoundNumber() > 0 && room.getRoundNumber() % 11 == 0;
+            boolean isJackpot = room.roundNumber() > 0 && room.roundNumber() % 11 == 0;
             state.put("isJackpotRound", isJackpot);
-            int jackpotRemainder = room.getRoundNumber() % 11;
+            int jackpotRemainder = room.roundNumber() % 11;
             state.put("nextJackpotRound", jackpotRemainder == 0 ? 0 : 11 - jackpotRemainder);
         }
 
-        Player currentPlayer = room.isStarted() && !room.isFinished()
-                ? room.getPlayers().get(room.getCurrentPlayerIndex()) : null;
-        state.put("currentTurnPlayerId", currentPlayer != null ? currentPlayer.getId() : null);
+        state.put("currentTurnPlayerId", room.currentTurnPlayerId());
+
+        // Sealed mode: the bid window is shared, so send its deadline instead of a turn
+        if (room.isSealedMode()) {
+            state.put("sealedBidOpen", room.sealedBidOpen());
+            state.put("sealedBidDeadline", room.sealedBidDeadline());
+        }
 
         List<Map<String, Object>> playerList = new ArrayList<>();
-        for (Player p : room.getPlayers()) {
+        for (RoomSnapshot.PlayerSnapshot p : room.players()) {
             Map<String, Object> pm = new HashMap<>();
-            pm.put("id", p.getId());
-            pm.put("displayName", p.getDisplayName());
-            pm.put("netWorth", p.getNetWorth());
-            pm.put("cpu", p.isCpu());
-            pm.put("passed", p.isPassedThisRound());
-            pm.put("connected", p.isConnected());
+            pm.put("id", p.id());
+            pm.put("displayName", p.displayName());
+            pm.put("netWorth", p.netWorth());
+            pm.put("cpu", p.cpu());
+            pm.put("passed", p.passed());
+            pm.put("connected", p.connected());
             // Rage mode: show bribe indicator
             if (room.isRageMode()) {
-                pm.put("bribed", p.getBribeTaxPercent() > 0);
-                pm.put("bribeTaxPercent", p.getBribeTaxPercent());
+                pm.put("bribed", p.bribeTaxPercent() > 0);
+                pm.put("bribeTaxPercent", p.bribeTaxPercent());
             }
             // Only show own cents
-            if (p.getId().equals(playerId)) {
-                pm.put("cents", p.getCents());
+            if (p.id().equals(playerId)) {
+                pm.put("cents", p.cents());
                 pm.put("isYou", true);
+                if (room.isSealedMode()) pm.put("sealedBidSubmitted", p.sealedBidSubmitted());
             } else {
                 pm.put("cents", "???");
                 pm.put("isYou", false);
@@ -836,33 +1338,25 @@ public class GameService {
             playerList.add(pm);
         }
         state.put("players", playerList);
-        state.put("hostId", room.getHostId());
-        state.put("winNetWorth", room.getWinNetWorth());
-        state.put("startingCents", room.getStartingCents());
-        state.put("isSpectator", room.getSpectatorIds().contains(playerId));
+        state.put("hostId", room.hostId());
+        state.put("winNetWorth", room.winNetWorth());
+        state.put("startingCents", room.startingCents());
+        state.put("isSpectator", playerId != null && room.spectatorIds().contains(playerId));
         return state;
     }
 
     private void broadcastState(GameRoom room) {
+        // Every committed command ends in a broadcast; publish first so readers match what was sent
+        room.publishSnapshot();
         // Broadcast to players
         for (Player p : room.getPlayers()) {
             if (!p.isCpu()) {
-                messagingTemplate.convertAndSend("/topic/room/" + room.getRoomCode() + "/state/" + p.getId(),
-                        (Object) getPublicState(room, p.getId()));
+                messagingTemplate.convertAndSend(p.getStateDestination(), (Object) getPublicState(room, p.getId()));
             }
         }
         // Broadcast to spectators
-        for (String specId : room.getSpectatorIds()) {
-            messagingTemplate.convertAndSend("/topic/room/" + room.getRoomCode() + "/state/" + specId,
-                    (Object) getPublicState(room, specId));
+        for (Map.Entry<String, String> spec : room.getSpectators().entrySet()) {
+            messagingTemplate.convertAndSend(spec.getValue(), (Object) getPublicState(room, spec.getKey()));
         }
     }
-
-    private String generateRoomCode() {
-        String chars = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < 5; i++) sb.append(chars.charAt(random.nextInt(chars.length())));
-        String code = sb.toString();
-        return rooms.containsKey(code) ? generateRoomCode() : code;
-    }
 }
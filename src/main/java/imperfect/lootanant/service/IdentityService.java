@@ -0,0 +1,66 @@
+package imperfect.lootanant.service;
+
+import imperfect.lootanant.model.SessionToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class IdentityService {
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private final SecretKeySpec key;
+    // Mixed into every MAC so tokens never outlive the process that issued them
+    private final byte[] epoch = new byte[8];
+    private final AtomicInteger nextRoomId = new AtomicInteger();
+
+    public IdentityService(@Value("${lootanant.session.secret:}") String secret) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, MAC_ALGORITHM);
+        new SecureRandom().nextBytes(epoch);
+    }
+
+    public int nextRoomId() {
+        return nextRoomId.incrementAndGet();
+    }
+
+    // Issued once per join; the room keeps the token per slot, so commands only
+    // decode the routing part and compare against the stored token.
+    public String issue(int roomId, int kind, int slot) {
+        if (slot < 0 || slot > SessionToken.MAX_SLOT) {
+            throw new IllegalArgumentException("Slot out of range: " + slot);
+        }
+        long payload = SessionToken.pack(roomId, kind, slot);
+        ByteBuffer buf = ByteBuffer.allocate(12);
+        buf.putInt((int) (payload >>> 16));
+        buf.putShort((short) payload);
+        buf.put(mac(buf.array(), 6), 0, 6);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buf.array());
+    }
+
+    private byte[] mac(byte[] data, int len) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            mac.update(epoch);
+            mac.update(data, 0, len);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign session token", e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package imperfect.lootanant.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Win counts per display name, kept sorted as games are recorded. Players have
+ * no identity that outlives a room, so the index is name-based: anyone who picks
+ * a name shares its standing. The defaults ("Host", "Player") and CPU-style
+ * names are not ranked, so unnamed players don't pool into one entry.
+ * The ordered set answers top-K by walking its head, and a Fenwick tree over
+ * win counts answers "how many players have more wins than w", so both reads
+ * stay logarithmic no matter how many games or players have been recorded.
+ */
+public class LeaderboardIndex {
+
+    public record Standing(int rank, String name, int wins, int games) {}
+
+    private static final class Entry {
+        final String name;
+        int wins;
+        int games;
+
+        Entry(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final Set<String> DEFAULT_NAMES = Set.of("host", "player");
+    private static final Pattern CPU_NAME = Pattern.compile("(?i)cpu\\s*\\d*");
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingInt((Entry e) -> -e.wins)
+            .thenComparingInt(e -> e.games)
+            .thenComparing(e -> e.name);
+
+    private final Map<String, Entry> byName = new HashMap<>();
+    private final TreeSet<Entry> ordered = new TreeSet<>(ORDER);
+    // Fenwick tree: slot w+1 counts players with exactly w wins
+    private int[] tree = new int[64];
+
+    public static boolean rankable(String name) {
+        if (name == null || name.isBlank()) return false;
+        String trimmed = name.trim();
+        return !DEFAULT_NAMES.contains(trimmed.toLowerCase()) && !CPU_NAME.matcher(trimmed).matches();
+    }
+
+    public synchronized void record(String name, boolean won) {
+        if (!rankable(name)) return;
+        Entry e = byName.get(name);
+        if (e == null) {
+            e = new Entry(name);
+            byName.put(name, e);
+            add(0, 1);
+        } else {
+            // Sort keys are about to change; take the entry out while it is mutated
+            ordered.remove(e);
+        }
+        e.games++;
+        if (won) {
+            // Rebuild (rarely) while the tree still matches the entries, before touching them;
+            // the new count lands in slot wins + 2, so the tree needs one more than that
+            if (e.wins + 3 > tree.length) grow(e.wins + 3);
+            add(e.wins, -1);
+            e.wins++;
+            add(e.wins, 1);
+        }
+        ordered.add(e);
+    }
+
+    public synchronized List<Standing> top(int limit) {
+        List<Standing> result = new ArrayList<>(Math.min(limit, ordered.size()));
+        Iterator<Entry> it = ordered.iterator();
+        while (it.hasNext() && result.size() < limit) {
+            Entry e = it.next();
+            result.add(new Standing(rankOf(e.wins), e.name, e.wins, e.games));
+        }
+        return result;
+    }
+
+    public synchronized Standing standing(String name) {
+        Entry e = byName.get(name);
+        return e == null ? null : new Standing(rankOf(e.wins), e.name, e.wins, e.games);
+    }
+
+    public synchronized int size() {
+        return byName.size();
+    }
+
+    // Competition ranking: players tied on wins share a rank
+    private int rankOf(int wins) {
+        return byName.size() - prefix(wins) + 1;
+    }
+
+    private void add(int wins, int delta) {
+        for (int i = wins + 1; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    // Number of players with at most {@code wins} wins
+    private int prefix(int wins) {
+        int sum = 0;
+        for (int i = Math.min(wins + 1, tree.length - 1); i > 0; i -= i & -i) sum += tree[i];
+        return sum;
+    }
+
+    private void grow(int minLength) {
+        int length = tree.length;
+        while (length < minLength) length <<= 1;
+        tree = new int[length];
+        for (Entry e : byName.values()) {
+            for (int i = e.wins + 1; i < tree.length; i += i & -i) tree[i]++;
+        }
+    }
+}
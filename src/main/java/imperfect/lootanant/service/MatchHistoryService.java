@@ -0,0 +1,141 @@
+package imperfect.lootanant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import imperfect.lootanant.model.MatchRecord;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only match history (one JSON line per finished game) plus the global
+ * leaderboard built from it. The game thread only enqueues; a single writer
+ * thread drains the queue in batches, appends them with one flush, and folds
+ * them into the in-memory leaderboard. On startup the file is replayed once to
+ * rebuild the leaderboard, so reads never touch the file.
+ */
+@Service
+public class MatchHistoryService {
+
+    private final ConcurrentLinkedQueue<MatchRecord> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor();
+    private final LeaderboardIndex leaderboard = new LeaderboardIndex();
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final int batchSize;
+
+    public MatchHistoryService(ObjectMapper objectMapper,
+                               @Value("${lootanant.history.file:data/match-history.ndjson}") String file,
+                               @Value("${lootanant.history.flush-interval-ms:1000}") long flushIntervalMs,
+                               @Value("${lootanant.history.batch-size:512}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.file = Path.of(file);
+        this.batchSize = Math.max(1, batchSize);
+        replay();
+        writer.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Called under the game lock; only queues the record. */
+    public void record(MatchRecord match) {
+        pending.offer(match);
+    }
+
+    public List<LeaderboardIndex.Standing> top(int limit) {
+        return leaderboard.top(limit);
+    }
+
+    public LeaderboardIndex.Standing standing(String name) {
+        return leaderboard.standing(name);
+    }
+
+    public int rankedPlayers() {
+        return leaderboard.size();
+    }
+
+    private void flush() {
+        while (!pending.isEmpty()) {
+            try {
+                writeBatch();
+            } catch (IOException | UncheckedIOException e) {
+                // Keep what is still queued; the next tick retries
+                return;
+            }
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (int i = 0; i < batchSize; i++) {
+                MatchRecord match = pending.peek();
+                if (match == null) break;
+                out.write(objectMapper.writeValueAsString(match));
+                out.newLine();
+                pending.poll();
+                index(match);
+            }
+        }
+    }
+
+    private void replay() {
+        if (!Files.exists(file)) return;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    index(objectMapper.readValue(line, MatchRecord.class));
+                } catch (IOException e) {
+                    // A torn last line from a crash; everything before it still counts
+                }
+            }
+            terminateTornLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read match history " + file, e);
+        }
+    }
+
+    // Start appends on a fresh line so a torn record cannot swallow the next one
+    private void terminateTornLine() throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() == 0) return;
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(last);
+            if (last.get(0) != '\n') channel.position(channel.size()).write(ByteBuffer.wrap(new byte[]{'\n'}));
+        }
+    }
+
+    // CPUs (including players who left and were handed to one) are not ranked; nor are default names
+    private void index(MatchRecord match) {
+        for (MatchRecord.PlayerResult p : match.players()) {
+            if (!p.cpu()) leaderboard.record(p.displayName(), p.winner());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
@@ -0,0 +1,220 @@
+package imperfect.lootanant.service;
+
+import imperfect.lootanant.model.GameRoom;
+import imperfect.lootanant.model.Player;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class MatchmakingService {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchmakingService.class);
+
+    private final GameService gameService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    // One FIFO queue per game mode, ordered by enqueue sequence (O(log n) insert/remove)
+    private final ConcurrentHashMap<String, ModeQueue> queues = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final int tableSize;
+    private final long cpuBackfillAfterMs;
+    // Time between handing out a seat and dealing the first bar, for clients to subscribe
+    static final long START_DELAY_SECONDS = 3;
+    // Positions up to here are pushed exactly; deeper ones only when they cross a 1-2-5 step
+    private static final int EXACT_POSITIONS = 10;
+
+    public MatchmakingService(GameService gameService, SimpMessagingTemplate messagingTemplate,
+                              @Value("${lootanant.matchmaking.table-size:4}") int tableSize,
+                              @Value("${lootanant.matchmaking.batch-interval-ms:2000}") long batchIntervalMs,
+                              @Value("${lootanant.matchmaking.cpu-backfill-after-ms:20000}") long cpuBackfillAfterMs) {
+        this.gameService = gameService;
+        this.messagingTemplate = messagingTemplate;
+        this.tableSize = Math.max(2, Math.min(8, tableSize));
+        this.cpuBackfillAfterMs = cpuBackfillAfterMs;
+        scheduler.scheduleWithFixedDelay(this::formRooms, batchIntervalMs, batchIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public Map<String, Object> enqueue(String displayName, String gameMode) {
+        String mode = GameRoom.normalizeGameMode(gameMode);
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), displayName, mode,
+                sequence.incrementAndGet(), System.currentTimeMillis());
+        ModeQueue queue = queues.computeIfAbsent(mode, m -> new ModeQueue());
+        tickets.put(ticket.id, ticket);
+        queue.entries.put(ticket.seq, ticket);
+        int position = queue.size.incrementAndGet();
+        ticket.lastPushedPosition = positionBucket(position);
+        return Map.of("ticketId", ticket.id, "gameMode", mode, "position", position);
+    }
+
+    public boolean cancel(String ticketId) {
+        Ticket ticket = tickets.remove(ticketId);
+        if (ticket == null) return false;
+        ModeQueue queue = queues.get(ticket.mode);
+        if (queue != null && queue.entries.remove(ticket.seq) != null) {
+            queue.size.decrementAndGet();
+            queue.shifts.incrementAndGet();
+        }
+        return true;
+    }
+
+    private void formRooms() {
+        long now = System.currentTimeMillis();
+        queues.forEach((mode, queue) -> {
+            try {
+                // Full tables first
+                while (queue.size.get() >= tableSize) {
+                    List<Ticket> batch = pollBatch(queue, tableSize);
+                    if (batch.isEmpty() || !formRoom(mode, batch)) break;
+                }
+                // Backfill with CPUs once the oldest player has waited long enough
+                Map.Entry<Long, Ticket> oldest = queue.entries.firstEntry();
+                if (oldest != null && now - oldest.getValue().enqueuedAt >= cpuBackfillAfterMs) {
+                    List<Ticket> batch = pollBatch(queue, tableSize);
+                    if (!batch.isEmpty()) formRoom(mode, batch);
+                }
+                pushPositions(queue);
+            } catch (RuntimeException e) {
+                // Other modes still form rooms this tick
+                log.warn("Matchmaking tick failed for mode {}", mode, e);
+            }
+        });
+    }
+
+    private List<Ticket> pollBatch(ModeQueue queue, int max) {
+        List<Ticket> batch = new ArrayList<>(max);
+        while (batch.size() < max) {
+            Map.Entry<Long, Ticket> e = queue.entries.pollFirstEntry();
+            if (e == null) break;
+            queue.size.decrementAndGet();
+            queue.shifts.incrementAndGet();
+            // Skip tickets cancelled between poll and removal
+            if (tickets.remove(e.getValue().id) != null) batch.add(e.getValue());
+        }
+        return batch;
+    }
+
+    private boolean formRoom(String mode, List<Ticket> batch) {
+        Ticket hostTicket = batch.get(0);
+        GameRoom room = gameService.createRoom(hostTicket.displayName, mode);
+        if (room == null) {
+            // Out of room codes: put the batch back at the head of its queue
+            requeue(mode, batch);
+            return false;
+        }
+        String code = room.getRoomCode();
+        String hostId = room.getHostId();
+        try {
+            // The server starts this table, so nobody is told they host it
+            notifyMatched(hostTicket, room, hostId, "");
+            for (Ticket t : batch.subList(1, batch.size())) {
+                Player p = gameService.joinRoom(code, t.displayName);
+                if (p != null) {
+                    notifyMatched(t, room, p.getId(), "");
+                } else {
+                    // No seat after all: back to the head of the queue for the next batch
+                    requeue(mode, List.of(t));
+                }
+            }
+            // Fill the remaining seats through the regular host path
+            while (room.getSnapshot().players().size() < tableSize) {
+                if (gameService.addCpu(code, hostId) == null) break;
+            }
+        } catch (RuntimeException e) {
+            // Start with whoever is seated; the tick moves on to the next batch
+            log.warn("Matchmaking failed while seating room {}", code, e);
+        }
+        // Give clients a moment to subscribe before the first bar is dealt
+        scheduler.schedule(() -> gameService.startGame(code, hostId), START_DELAY_SECONDS, TimeUnit.SECONDS);
+        return true;
+    }
+
+    // Tickets keep their sequence number, so they go back in front of later arrivals
+    private void requeue(String mode, List<Ticket> batch) {
+        ModeQueue queue = queues.get(mode);
+        for (Ticket t : batch) {
+            tickets.put(t.id, t);
+            queue.entries.put(t.seq, t);
+            queue.size.incrementAndGet();
+            queue.shifts.incrementAndGet();
+        }
+    }
+
+    private void notifyMatched(Ticket ticket, GameRoom room, String playerId, String hostId) {
+        messagingTemplate.convertAndSend("/topic/matchmaking/" + ticket.id,
+                (Object) Map.of(
+                        "status", "matched",
+                        "roomCode", room.getRoomCode(),
+                        "playerId", playerId,
+                        "hostId", hostId,
+                        "gameMode", room.getGameMode()
+                ));
+    }
+
+    // A dequeue moves every ticket, so pushing exact positions would cost one frame per queued
+    // player per tick. Deep tickets hear only when they cross a step (~1000, ~500, ~200 ...),
+    // so frames stay at a few per step. Finding who crossed still walks the whole queue; only
+    // ticks where nothing left or re-entered it (the common idle case) skip the walk.
+    private void pushPositions(ModeQueue queue) {
+        // Read before walking: a change during the walk leaves the next tick to catch up
+        long shifts = queue.shifts.get();
+        if (shifts == queue.pushedShifts) return;
+        queue.pushedShifts = shifts;
+        int position = 0;
+        int queued = queue.size.get();
+        for (Ticket t : queue.entries.values()) {
+            position++;
+            int bucket = positionBucket(position);
+            if (t.lastPushedPosition == bucket) continue;
+            t.lastPushedPosition = bucket;
+            messagingTemplate.convertAndSend("/topic/matchmaking/" + t.id,
+                    (Object) Map.of("status", "queued", "position", Math.min(bucket, queued),
+                            "approximate", bucket != position, "queued", queued));
+        }
+    }
+
+    // Exact up to EXACT_POSITIONS, then the next of 20, 50, 100, 200, 500, 1000 ...
+    static int positionBucket(int position) {
+        if (position <= EXACT_POSITIONS) return position;
+        long step = EXACT_POSITIONS;
+        while (true) {
+            for (int m : new int[]{2, 5, 10}) {
+                if (position <= step * m) return (int) Math.min(Integer.MAX_VALUE, step * m);
+            }
+            step *= 10;
+        }
+    }
+
+    private static class Ticket {
+        final String id;
+        final String displayName;
+        final String mode;
+        final long seq;
+        final long enqueuedAt;
+        int lastPushedPosition = 0; // last position bucket sent over STOMP
+
+        Ticket(String id, String displayName, String mode, long seq, long enqueuedAt) {
+            this.id = id;
+            this.displayName = displayName;
+            this.mode = mode;
+            this.seq = seq;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    private static class ModeQueue {
+        final ConcurrentSkipListMap<Long, Ticket> entries = new ConcurrentSkipListMap<>();
+        final AtomicInteger size = new AtomicInteger();
+        // Bumped whenever a ticket may have moved: removals and requeues (tail arrivals move nobody)
+        final AtomicLong shifts = new AtomicLong();
+        long pushedShifts; // scheduler thread only
+    }
+}
@@ -0,0 +1,190 @@
+package imperfect.lootanant.service;
+
+import imperfect.lootanant.model.GameRoom;
+import imperfect.lootanant.model.RoomSnapshot;
+import imperfect.lootanant.model.RoomSummary;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Operator view of many rooms over one SSE connection. A single sampler reads
+ * every room's published snapshot once per interval (no game lock, no
+ * getPublicState) and builds one compact summary per room. Each stream gets
+ * only the summaries that changed since the last tick and match its mode/tag
+ * filter, plus the codes of rooms that went away. A new stream first gets a
+ * full "snapshot" event. Writes run on a sender pool, one at a time per stream,
+ * so a slow client never holds up sampling: a stream still busy with its last
+ * event skips ticks and is resynced with a fresh snapshot once it catches up.
+ */
+@Service
+public class ObserverService {
+
+    private static final Logger log = LoggerFactory.getLogger(ObserverService.class);
+
+    private final GameService gameService;
+    private final int maxStreams;
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+    // At most one write in flight per stream, so this never grows past maxStreams threads
+    private final ExecutorService senders = Executors.newCachedThreadPool();
+    private final List<Stream> streams = new CopyOnWriteArrayList<>();
+    // Reserved before a stream is built, so concurrent opens can't overshoot maxStreams
+    private final AtomicInteger openStreams = new AtomicInteger();
+    // Sampler-thread state: what the previous tick published
+    private Map<String, RoomSummary> last = new HashMap<>();
+
+    public ObserverService(GameService gameService,
+                           @Value("${lootanant.observer.interval-ms:1000}") long intervalMs,
+                           @Value("${lootanant.observer.max-streams:16}") int maxStreams) {
+        this.gameService = gameService;
+        this.maxStreams = maxStreams;
+        sampler.scheduleAtFixedRate(this::tick, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Opens a stream, or returns null when the stream limit is reached. Null filters match everything. */
+    public SseEmitter open(String mode, String tag) {
+        if (openStreams.incrementAndGet() > maxStreams) {
+            openStreams.decrementAndGet();
+            return null;
+        }
+        // No timeout: the stream lives until the operator disconnects
+        SseEmitter emitter = new SseEmitter(0L);
+        Stream stream = new Stream(emitter, mode == null ? null : GameRoom.normalizeGameMode(mode), GameRoom.normalizeTag(tag));
+        emitter.onCompletion(() -> drop(stream));
+        emitter.onTimeout(() -> drop(stream));
+        emitter.onError(e -> drop(stream));
+        streams.add(stream);
+        return emitter;
+    }
+
+    private void tick() {
+        try {
+            if (streams.isEmpty()) {
+                // Nobody is watching: skip sampling; the next stream starts from a snapshot anyway
+                last = Map.of();
+                return;
+            }
+            Map<String, RoomSummary> current = new HashMap<>();
+            for (GameRoom room : gameService.getRooms()) {
+                // One bad room drops out of this sample instead of the whole tick
+                try {
+                    RoomSnapshot snap = room.getSnapshot();
+                    if (snap == null || snap.reserved()) continue;
+                    current.put(snap.roomCode(), RoomSummary.of(snap));
+                } catch (RuntimeException e) {
+                    log.warn("Observer sample failed for room {}", room.getRoomCode(), e);
+                }
+            }
+            Map<String, RoomSummary> previous = last;
+            last = current;
+
+            List<RoomSummary> changed = new ArrayList<>();
+            for (RoomSummary s : current.values()) {
+                if (!s.equals(previous.get(s.code()))) changed.add(s);
+            }
+            List<String> removed = new ArrayList<>();
+            for (String code : previous.keySet()) {
+                if (!current.containsKey(code)) removed.add(code);
+            }
+            for (Stream stream : streams) {
+                if (!stream.busy.compareAndSet(false, true)) {
+                    // Still writing an earlier event: this diff is lost, so resync once it is done
+                    stream.needsSnapshot = true;
+                    continue;
+                }
+                if (stream.needsSnapshot) {
+                    stream.needsSnapshot = false;
+                    sendAsync(stream, "snapshot", Map.of("rooms", stream.filter(current.values())));
+                } else {
+                    List<RoomSummary> rooms = stream.filter(changed);
+                    if (rooms.isEmpty() && removed.isEmpty()) {
+                        stream.busy.set(false);
+                        continue;
+                    }
+                    sendAsync(stream, "diff", Map.of("rooms", rooms, "removed", removed));
+                }
+            }
+        } catch (RuntimeException e) {
+            // Never let one bad tick stop the sampler
+            log.warn("Observer tick failed", e);
+        }
+    }
+
+    private void sendAsync(Stream stream, String event, Object data) {
+        try {
+            senders.execute(() -> {
+                try {
+                    send(stream, event, data);
+                } finally {
+                    stream.busy.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            stream.busy.set(false);
+        }
+    }
+
+    private void send(Stream stream, String event, Object data) {
+        try {
+            stream.emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException | IllegalStateException e) {
+            drop(stream);
+            stream.emitter.completeWithError(e);
+        }
+    }
+
+    // Several callbacks can fire for one stream; only the one that removes it frees the slot
+    private void drop(Stream stream) {
+        if (streams.remove(stream)) openStreams.decrementAndGet();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sampler.shutdownNow();
+        senders.shutdownNow();
+        streams.forEach(s -> s.emitter.complete());
+    }
+
+    private static final class Stream {
+        final SseEmitter emitter;
+        final String mode;
+        final String tag;
+        // Sampler-thread only
+        boolean needsSnapshot = true;
+        final AtomicBoolean busy = new AtomicBoolean();
+
+        Stream(SseEmitter emitter, String mode, String tag) {
+            this.emitter = emitter;
+            this.mode = mode;
+            this.tag = tag;
+        }
+
+        List<RoomSummary> filter(Iterable<RoomSummary> rooms) {
+            List<RoomSummary> out = new ArrayList<>();
+            for (RoomSummary s : rooms) {
+                if (mode != null && !mode.equals(s.mode())) continue;
+                if (tag != null && !tag.equals(s.tag())) continue;
+                out.add(s);
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package imperfect.lootanant.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks who is actually connected from STOMP session events. Every live
+ * subscription to a personal state topic counts toward that player (or
+ * spectator) being present; when the last one goes away (unsubscribe, tab
+ * closed, heartbeat timeout) the game is told immediately instead of waiting
+ * for the turn timer. A real client watches exactly one state topic, so a
+ * session that subscribes to a second seat's topic stops counting for any seat.
+ */
+@Service
+public class PresenceService {
+
+    private static final String STATE_PREFIX = "/topic/room/";
+    private static final String STATE_SEGMENT = "/state/";
+
+    private final GameService gameService;
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    // "roomCode/playerId" -> number of live subscriptions watching that seat
+    private final ConcurrentHashMap<String, Integer> liveSubscriptions = new ConcurrentHashMap<>();
+
+    public PresenceService(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String key = presenceKey(accessor.getDestination());
+        String sessionId = accessor.getSessionId();
+        String subscriptionId = accessor.getSubscriptionId();
+        if (key == null || sessionId == null || subscriptionId == null) return;
+        Session session = sessions.computeIfAbsent(sessionId, id -> new Session());
+        List<String> dropped;
+        synchronized (session) {
+            if (session.watchingOthers) return;
+            if (session.subscriptions.isEmpty() || session.subscriptions.containsValue(key)) {
+                if (session.subscriptions.putIfAbsent(subscriptionId, key) == null) join(key);
+                return;
+            }
+            // Watching two seats: not somebody's own client, so none of it counts
+            session.watchingOthers = true;
+            dropped = new ArrayList<>(session.subscriptions.values());
+            session.subscriptions.clear();
+        }
+        dropped.forEach(this::leave);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Session session = sessions.get(accessor.getSessionId());
+        if (session == null || accessor.getSubscriptionId() == null) return;
+        String key;
+        synchronized (session) {
+            key = session.subscriptions.remove(accessor.getSubscriptionId());
+        }
+        if (key != null) leave(key);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Session session = sessions.remove(event.getSessionId());
+        if (session == null) return;
+        List<String> dropped;
+        synchronized (session) {
+            dropped = new ArrayList<>(session.subscriptions.values());
+            session.subscriptions.clear();
+        }
+        dropped.forEach(this::leave);
+    }
+
+    /** The player or spectator ID whose state topic in {@code roomCode} this session watches, or null. */
+    public String watchedId(String sessionId, String roomCode) {
+        Session session = sessionId == null ? null : sessions.get(sessionId);
+        if (session == null) return null;
+        String prefix = roomCode + "/";
+        synchronized (session) {
+            for (String key : session.subscriptions.values()) {
+                if (key.startsWith(prefix)) return key.substring(prefix.length());
+            }
+        }
+        return null;
+    }
+
+    private void join(String key) {
+        if (liveSubscriptions.merge(key, 1, Integer::sum) == 1) {
+            int slash = key.indexOf('/');
+            gameService.markPresent(key.substring(0, slash), key.substring(slash + 1));
+        }
+    }
+
+    private void leave(String key) {
+        if (liveSubscriptions.computeIfPresent(key, (k, n) -> n <= 1 ? null : n - 1) == null) {
+            int slash = key.indexOf('/');
+            gameService.markAbsent(key.substring(0, slash), key.substring(slash + 1));
+        }
+    }
+
+    // "/topic/room/{code}/state/{id}" -> "{code}/{id}"
+    private static String presenceKey(String destination) {
+        if (destination == null || !destination.startsWith(STATE_PREFIX)) return null;
+        int stateAt = destination.indexOf(STATE_SEGMENT, STATE_PREFIX.length());
+        if (stateAt < 0) return null;
+        String code = destination.substring(STATE_PREFIX.length(), stateAt);
+        String id = destination.substring(stateAt + STATE_SEGMENT.length());
+        if (code.isEmpty() || id.isEmpty() || code.indexOf('/') >= 0 || id.indexOf('/') >= 0) return null;
+        return code + "/" + id;
+    }
+
+    private static final class Session {
+        // STOMP subscription id -> "roomCode/playerId"
+        final Map<String, String> subscriptions = new HashMap<>();
+        boolean watchingOthers;
+    }
+}
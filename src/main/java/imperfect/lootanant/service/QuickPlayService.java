@@ -0,0 +1,108 @@
+package imperfect.lootanant.service;
+
+import imperfect.lootanant.model.GameRoom;
+import imperfect.lootanant.model.SeatTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Play vs CPUs" in one call. A background task keeps a few rooms per
+ * (mode, table size) built with their CPU seats filled; a claim just renames
+ * the host seat, and the first bar is dealt once the caller has had the same
+ * moment to subscribe that matchmaking gives its players. Table sizes that are not pooled, or
+ * an empty pool, fall back to building the room on the spot.
+ */
+@Service
+public class QuickPlayService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuickPlayService.class);
+
+    private static final List<String> MODES = List.of("classic", "rage", "sealed");
+
+    private final GameService gameService;
+    private final AdmissionService admissionService;
+    private final ScheduledExecutorService refiller = Executors.newSingleThreadScheduledExecutor();
+    // "mode/seats" -> codes of pre-built rooms ready to hand out
+    private final Map<String, ConcurrentLinkedQueue<String>> pools = new ConcurrentHashMap<>();
+    private final int poolSize;
+
+    public QuickPlayService(GameService gameService, AdmissionService admissionService,
+                            @Value("${lootanant.quickplay.pool-size:2}") int poolSize,
+                            @Value("${lootanant.quickplay.table-sizes:2,4}") List<Integer> tableSizes,
+                            @Value("${lootanant.quickplay.refill-interval-ms:1000}") long refillIntervalMs) {
+        this.gameService = gameService;
+        this.admissionService = admissionService;
+        this.poolSize = poolSize;
+        for (String mode : MODES) {
+            for (int seats : tableSizes) pools.put(key(mode, clampSeats(seats)), new ConcurrentLinkedQueue<>());
+        }
+        refiller.scheduleWithFixedDelay(this::refill, 0, refillIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Returns a room whose host seat belongs to the caller and that starts shortly, or null if none could be made. */
+    public GameRoom claim(String displayName, String gameMode, int seats, String pacing) {
+        String mode = GameRoom.normalizeGameMode(gameMode);
+        int tableSize = clampSeats(seats);
+        ConcurrentLinkedQueue<String> pool = pools.get(key(mode, tableSize));
+        GameRoom room = null;
+        if (pool != null) {
+            String code;
+            while (room == null && (code = pool.poll()) != null) {
+                room = gameService.claimReservedRoom(code, displayName, pacing);
+            }
+            if (room != null) refiller.execute(this::refill);
+        }
+        if (room == null) {
+            GameRoom built = gameService.createReservedRoom(mode, tableSize);
+            if (built != null) room = gameService.claimReservedRoom(built.getRoomCode(), displayName, pacing);
+        }
+        if (room != null) {
+            // The caller doesn't have its playerId yet, let alone a subscription
+            String code = room.getRoomCode(), hostId = room.getHostId();
+            refiller.schedule(() -> gameService.startGame(code, hostId),
+                    MatchmakingService.START_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+        return room;
+    }
+
+    private void refill() {
+        for (Map.Entry<String, ConcurrentLinkedQueue<String>> e : pools.entrySet()) {
+            String key = e.getKey();
+            int slash = key.indexOf('/');
+            String mode = key.substring(0, slash);
+            int seats = Integer.parseInt(key.substring(slash + 1));
+            ConcurrentLinkedQueue<String> pool = e.getValue();
+            // Pre-building is optional work: stop as soon as the node has no headroom
+            while (pool.size() < poolSize && admissionService.hasHeadroom()) {
+                GameRoom room;
+                try {
+                    room = gameService.createReservedRoom(mode, seats);
+                } catch (RuntimeException ex) {
+                    // Skip this pool for the tick; the others still refill
+                    log.warn("Quick-play refill failed for pool {}", key, ex);
+                    break;
+                }
+                if (room == null) return;
+                pool.offer(room.getRoomCode());
+            }
+        }
+    }
+
+    private static String key(String mode, int seats) {
+        return mode + "/" + seats;
+    }
+
+    private static int clampSeats(int seats) {
+        return Math.max(2, Math.min(SeatTable.MAX_SEATS, seats));
+    }
+}
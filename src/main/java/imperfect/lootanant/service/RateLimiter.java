@@ -0,0 +1,110 @@
+package imperfect.lootanant.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by player ID, remote address or STOMP session.
+ * Each bucket is a single AtomicLong holding its "theoretical arrival time"
+ * (GCRA form of a token bucket), so an acquire is one CAS on a per-key value
+ * and callers for different keys never touch the same memory.
+ */
+@Service
+public class RateLimiter {
+
+    public enum Scope { PLAYER, IP, SESSION, REACTION, CHAT }
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    // Endpoint tags are mapped route patterns, so this stays as small as the route table
+    private final ConcurrentHashMap<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor();
+    private final long playerInterval;
+    private final long playerTolerance;
+    private final long ipInterval;
+    private final long ipTolerance;
+    private final long reactionInterval;
+    private final long reactionTolerance;
+    private final long chatInterval;
+    private final long chatTolerance;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${lootanant.ratelimit.player-per-second:10}") double playerPerSecond,
+                       @Value("${lootanant.ratelimit.player-burst:20}") int playerBurst,
+                       @Value("${lootanant.ratelimit.ip-per-second:50}") double ipPerSecond,
+                       @Value("${lootanant.ratelimit.ip-burst:100}") int ipBurst,
+                       @Value("${lootanant.ratelimit.reaction-per-second:4}") double reactionPerSecond,
+                       @Value("${lootanant.ratelimit.reaction-burst:8}") int reactionBurst,
+                       @Value("${lootanant.ratelimit.chat-per-second:1}") double chatPerSecond,
+                       @Value("${lootanant.ratelimit.chat-burst:5}") int chatBurst) {
+        this.meterRegistry = meterRegistry;
+        this.playerInterval = (long) (1_000_000_000L / playerPerSecond);
+        this.playerTolerance = playerInterval * playerBurst;
+        this.ipInterval = (long) (1_000_000_000L / ipPerSecond);
+        this.ipTolerance = ipInterval * ipBurst;
+        this.reactionInterval = (long) (1_000_000_000L / reactionPerSecond);
+        this.reactionTolerance = reactionInterval * reactionBurst;
+        this.chatInterval = (long) (1_000_000_000L / chatPerSecond);
+        this.chatTolerance = chatInterval * chatBurst;
+        // Idle buckets are full buckets; drop them so the map tracks only active callers
+        sweeper.scheduleWithFixedDelay(this::sweep, 1, 1, TimeUnit.MINUTES);
+    }
+
+    public boolean tryAcquire(Scope scope, String key, String endpoint) {
+        return acquire(scope, key, endpoint) == 0;
+    }
+
+    /** 0 if the call may go ahead, otherwise the nanoseconds until the bucket would admit it. */
+    public long acquire(Scope scope, String key, String endpoint) {
+        if (key == null || key.isEmpty()) return 0;
+        long interval = switch (scope) {
+            case IP -> ipInterval;
+            case REACTION -> reactionInterval;
+            case CHAT -> chatInterval;
+            default -> playerInterval;
+        };
+        long tolerance = switch (scope) {
+            case IP -> ipTolerance;
+            case REACTION -> reactionTolerance;
+            case CHAT -> chatTolerance;
+            default -> playerTolerance;
+        };
+        AtomicLong bucket = buckets.computeIfAbsent(scope.name() + ':' + key, k -> new AtomicLong());
+        long now = System.nanoTime();
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + interval;
+            if (next - now > tolerance) {
+                rejected(scope, endpoint).increment();
+                return next - tolerance - now;
+            }
+            if (bucket.compareAndSet(tat, next)) return 0;
+        }
+    }
+
+    /** Whole seconds for a Retry-After header, at least 1. */
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    private Counter rejected(Scope scope, String endpoint) {
+        return rejectedCounters.computeIfAbsent(scope.name() + ' ' + endpoint,
+                k -> Counter.builder("lootanant.ratelimit.rejected")
+                        .tag("scope", scope.name().toLowerCase())
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry));
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(e -> e.getValue().get() < now);
+    }
+}
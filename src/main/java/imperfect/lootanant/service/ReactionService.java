@@ -0,0 +1,93 @@
+package imperfect.lootanant.service;
+
+import imperfect.lootanant.model.GameRoom;
+import imperfect.lootanant.model.RoomSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live emotes from players and spectators. A reaction only bumps a striped
+ * counter for its room; once per window every room with activity gets a
+ * single frame of totals, so a crowd spamming reactions costs one broadcast
+ * per window instead of one per click.
+ */
+@Service
+public class ReactionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactionService.class);
+
+    public static final List<String> EMOTES = List.of("👏", "🔥", "😂", "😱", "💰", "👑");
+
+    private final GameService gameService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RateLimiter rateLimiter;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+    // Room code -> one adder per emote (indexes match EMOTES)
+    private final ConcurrentHashMap<String, LongAdder[]> counters = new ConcurrentHashMap<>();
+
+    public ReactionService(GameService gameService, SimpMessagingTemplate messagingTemplate, RateLimiter rateLimiter,
+                           @Value("${lootanant.reactions.window-ms:250}") long windowMs) {
+        this.gameService = gameService;
+        this.messagingTemplate = messagingTemplate;
+        this.rateLimiter = rateLimiter;
+        flusher.scheduleAtFixedRate(this::flush, windowMs, windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Counts one reaction; false if the sender is unknown, throttled, or the emote is not offered. */
+    public boolean react(String roomCode, String senderId, int emote) {
+        if (emote < 0 || emote >= EMOTES.size()) return false;
+        GameRoom room = gameService.getRoom(roomCode);
+        if (room == null || !isMember(room.getSnapshot(), senderId)) return false;
+        if (!rateLimiter.tryAcquire(RateLimiter.Scope.REACTION, senderId, "reaction")) return false;
+        counters.computeIfAbsent(roomCode, c -> newCounters())[emote].increment();
+        return true;
+    }
+
+    private void flush() {
+        for (Map.Entry<String, LongAdder[]> e : counters.entrySet()) {
+            String code = e.getKey();
+            // One bad room must not stop the rest of the flush
+            try {
+                if (gameService.getRoom(code) == null) {
+                    counters.remove(code, e.getValue());
+                    continue;
+                }
+                long[] counts = new long[EMOTES.size()];
+                long total = 0;
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] = e.getValue()[i].sumThenReset();
+                    total += counts[i];
+                }
+                if (total == 0) continue;
+                messagingTemplate.convertAndSend("/topic/room/" + code + "/reactions", (Object) Map.of("counts", counts));
+            } catch (RuntimeException ex) {
+                log.warn("Reaction flush failed for room {}", code, ex);
+            }
+        }
+    }
+
+    // Off the game lock: membership comes from the published snapshot
+    private static boolean isMember(RoomSnapshot snapshot, String id) {
+        if (snapshot == null) return false;
+        if (snapshot.spectatorIds().contains(id)) return true;
+        RoomSnapshot.PlayerSnapshot player = snapshot.player(id);
+        return player != null && !player.cpu();
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] adders = new LongAdder[EMOTES.size()];
+        for (int i = 0; i < adders.length; i++) adders[i] = new LongAdder();
+        return adders;
+    }
+}
@@ -0,0 +1,80 @@
+package imperfect.lootanant.service;
+
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class RoomCodeAllocator {
+
+    private static final String CHARS = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+    private static final int CODE_LENGTH = 5;
+    private static final int BITS = 25; // 32^5 == 2^25 codes
+    private static final int SPACE = 1 << BITS;
+    private static final int MASK = SPACE - 1;
+
+    // Walks the whole code space once; each counter value maps to a distinct code
+    private final AtomicInteger counter = new AtomicInteger();
+    // Released codes stay out of circulation for this long, so clients still subscribed to
+    // /topic/room/{code}/ don't pick up a new room's frames
+    static final long QUARANTINE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    // Codes handed back by purged/discarded rooms, oldest first; reused only once the space runs out
+    private final ConcurrentLinkedQueue<Released> freeCodes = new ConcurrentLinkedQueue<>();
+    private final int multiplier;
+    private final int offset;
+
+    public RoomCodeAllocator() {
+        SecureRandom rnd = new SecureRandom();
+        this.multiplier = (rnd.nextInt() | 1) & MASK; // odd => invertible mod 2^25
+        this.offset = rnd.nextInt() & MASK;
+    }
+
+    /** Returns a code no live room holds, or null once every code is in use or quarantined. */
+    public String allocate() {
+        return allocate(System.currentTimeMillis());
+    }
+
+    String allocate(long nowMillis) {
+        if (counter.get() < SPACE) {
+            int i = counter.getAndIncrement();
+            if (i >= 0 && i < SPACE) return encode(permute(i));
+            counter.set(SPACE); // keep the counter from wrapping back into issued codes
+        }
+        Released oldest = freeCodes.peek();
+        if (oldest == null || nowMillis - oldest.at() < QUARANTINE_MILLIS) return null;
+        return freeCodes.remove(oldest) ? oldest.code() : allocate(nowMillis);
+    }
+
+    public void release(String code) {
+        release(code, System.currentTimeMillis());
+    }
+
+    void release(String code, long nowMillis) {
+        if (code != null) freeCodes.offer(new Released(code, nowMillis));
+    }
+
+    private record Released(String code, long at) {}
+
+    // Bijection on 25 bits: affine step, xorshift, affine step. Consecutive counters
+    // land far apart, so codes stay unguessable-looking without a collision check.
+    private int permute(int x) {
+        x = (x * multiplier + offset) & MASK;
+        x ^= x >>> 13;
+        x = (x * multiplier + offset) & MASK;
+        x ^= x >>> 7;
+        return x;
+    }
+
+    private static String encode(int index) {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = CHARS.charAt(index & 31);
+            index >>>= 5;
+        }
+        return new String(code);
+    }
+}
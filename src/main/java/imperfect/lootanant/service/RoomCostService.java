@@ -0,0 +1,77 @@
+package imperfect.lootanant.service;
+
+import imperfect.lootanant.model.GameRoom;
+import imperfect.lootanant.model.RoomCost;
+import imperfect.lootanant.model.RoomSnapshot;
+import imperfect.lootanant.model.RoomSummary;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which rooms are costing the node the most. GameService charges commands,
+ * scheduled tasks and lock time to each room's {@link RoomCost}; the outbound
+ * STOMP channel reports frames and bytes here. Ranking reads the counters and
+ * published snapshots only, never the game lock.
+ */
+@Service
+public class RoomCostService {
+
+    public static final Map<String, Integer> ORDERS = Map.of(
+            "lock", RoomCost.LOCK_NANOS, "commands", RoomCost.COMMANDS, "tasks", RoomCost.TASKS,
+            "frames", RoomCost.FRAMES, "bytes", RoomCost.BYTES);
+
+    private final GameService gameService;
+
+    public RoomCostService(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    /** One delivered STOMP MESSAGE frame; anything outside /topic/room/{code}/ is ignored. */
+    public void frameSent(String destination, int bytes) {
+        if (!destination.startsWith("/topic/room/")) return;
+        int end = destination.indexOf('/', 12);
+        if (end < 0) return;
+        GameRoom room = gameService.getRoom(destination.substring(12, end));
+        if (room != null) room.getCost().frame(bytes);
+    }
+
+    /** The {@code n} rooms with the highest {@code by} over the last window; null if {@code by} is unknown. */
+    public List<Map<String, Object>> top(int n, String by) {
+        Integer metric = ORDERS.get(by);
+        if (metric == null) return null;
+        long now = System.currentTimeMillis();
+        List<Ranked> ranked = new ArrayList<>();
+        for (GameRoom room : gameService.getRooms()) {
+            RoomSnapshot snap = room.getSnapshot();
+            if (snap == null || snap.reserved()) continue;
+            RoomCost cost = room.getCost();
+            if (cost.total(RoomCost.COMMANDS, now) + cost.total(RoomCost.TASKS, now)
+                    + cost.total(RoomCost.FRAMES, now) == 0) continue;
+            RoomSummary summary = RoomSummary.of(snap);
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("code", summary.code());
+            line.put("mode", summary.mode());
+            line.put("tag", summary.tag());
+            line.put("phase", summary.phase());
+            line.put("players", summary.players());
+            line.put("spectators", summary.spectators());
+            line.put("commands", cost.total(RoomCost.COMMANDS, now));
+            line.put("tasks", cost.total(RoomCost.TASKS, now));
+            line.put("lockMs", cost.total(RoomCost.LOCK_NANOS, now) / 1_000_000.0);
+            line.put("frames", cost.total(RoomCost.FRAMES, now));
+            line.put("bytes", cost.total(RoomCost.BYTES, now));
+            ranked.add(new Ranked(cost.total(metric, now), line));
+        }
+        ranked.sort(Comparator.comparingLong(Ranked::key).reversed());
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (int i = 0; i < Math.min(n, ranked.size()); i++) top.add(ranked.get(i).line());
+        return top;
+    }
+
+    private record Ranked(long key, Map<String, Object> line) {}
+}
@@ -0,0 +1,236 @@
+package imperfect.lootanant.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Optional recording of inbound traffic for replay against a local node
+ * (see TrafficReplayer in src/test). Captures REST calls to the game API, STOMP
+ * subscriptions and disconnects, and the matchmaking pushes that hand out IDs.
+ * Times are offsets from capture start; room codes, player/ticket IDs, sessions
+ * and names are replaced by aliases before anything is queued. An alias is the
+ * kind letter (R, P, T, S, N) plus 12 hex digits of an HMAC keyed by a secret
+ * that lives only for this run, so the same value always gets the same alias,
+ * nothing is remembered per value, and aliases can't be reversed afterwards. A single writer thread drains the queue into one gzip NDJSON file
+ * per run; when the queue is full, records are dropped and counted.
+ */
+@Service
+public class TrafficCaptureService {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {};
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    // Field / path-variable name -> alias prefix. Aliases of R, P and T are rebound by the replayer.
+    private static final Map<String, String> ALIAS_KEYS = Map.of(
+            "roomCode", "R", "playerId", "P", "hostId", "P", "targetId", "P", "cpuId", "P", "ticketId", "T",
+            "name", "N");
+    private static final Set<String> RESPONSE_KEYS = Set.of("roomCode", "playerId", "hostId", "ticketId");
+
+    private final boolean enabled;
+    private final long startNanos = System.nanoTime();
+    private final SecretKeySpec aliasKey;
+    private final ArrayBlockingQueue<Map<String, Object>> pending;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor();
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final Counter dropped;
+    private final Counter written;
+
+    // Writer-thread state
+    private BufferedWriter out;
+
+    public TrafficCaptureService(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 @Value("${lootanant.capture.enabled:false}") boolean enabled,
+                                 @Value("${lootanant.capture.dir:data/capture}") String dir,
+                                 @Value("${lootanant.capture.queue-size:65536}") int queueSize,
+                                 @Value("${lootanant.capture.flush-interval-ms:500}") long flushIntervalMs) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.file = Path.of(dir, "traffic-" + LocalDateTime.now().format(FILE_STAMP) + ".ndjson.gz");
+        this.pending = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        this.aliasKey = new SecretKeySpec(keyBytes, "HmacSHA256");
+        this.dropped = Counter.builder("lootanant.capture.dropped").register(meterRegistry);
+        this.written = Counter.builder("lootanant.capture.written").register(meterRegistry);
+        if (enabled) {
+            writer.scheduleWithFixedDelay(this::drain, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * One game API call. {@code pattern} is the mapped route (e.g. /api/state/{roomCode}/{playerId});
+     * body and response keep only what the replayer needs, with IDs and names aliased.
+     */
+    public void recordHttp(String method, String pattern, Map<String, String> pathVariables, Map<String, Object> body,
+                            int status, Map<String, Object> response, long durationNanos) {
+        Map<String, Object> record = record("http");
+        record.put("m", method);
+        record.put("e", pattern);
+        if (pathVariables != null && !pathVariables.isEmpty()) {
+            Map<String, String> vars = new LinkedHashMap<>();
+            pathVariables.forEach((k, v) -> vars.put(k, aliasFor(k, v)));
+            record.put("v", vars);
+        }
+        if (body != null) record.put("b", anonymize(body));
+        record.put("s", status);
+        if (response != null) {
+            Map<String, Object> ids = new LinkedHashMap<>();
+            for (String key : RESPONSE_KEYS) {
+                if (response.get(key) instanceof String value) ids.put(key, aliasFor(key, value));
+            }
+            if (!ids.isEmpty()) record.put("r", ids);
+        }
+        record.put("ms", TimeUnit.NANOSECONDS.toMicros(durationNanos) / 1000.0);
+        offer(record);
+    }
+
+    public void recordSubscribe(String sessionId, String destination) {
+        Map<String, Object> record = record("sub");
+        record.put("c", alias("S", sessionId));
+        record.put("d", anonymizeDestination(destination));
+        offer(record);
+    }
+
+    public void recordDisconnect(String sessionId) {
+        Map<String, Object> record = record("close");
+        record.put("c", alias("S", sessionId));
+        offer(record);
+    }
+
+    /** A matchmaking push: the only place players learn IDs outside a REST response. */
+    public void recordPush(String destination, byte[] json) {
+        Map<String, Object> payload;
+        try {
+            payload = objectMapper.readValue(json, JSON_OBJECT);
+        } catch (IOException e) {
+            return;
+        }
+        Map<String, Object> ids = new LinkedHashMap<>();
+        for (String key : RESPONSE_KEYS) {
+            if (payload.get(key) instanceof String value) ids.put(key, aliasFor(key, value));
+        }
+        if (ids.isEmpty()) return;
+        Map<String, Object> record = record("push");
+        record.put("d", anonymizeDestination(destination));
+        record.put("r", ids);
+        offer(record);
+    }
+
+    // ── Anonymization ──
+
+    private Map<String, Object> anonymize(Map<String, Object> body) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        body.forEach((k, v) -> copy.put(k, v instanceof String s ? aliasFor(k, s) : v));
+        return copy;
+    }
+
+    private String aliasFor(String key, String value) {
+        String prefix = ALIAS_KEYS.get(key);
+        return prefix == null || value.isEmpty() ? value : alias(prefix, value);
+    }
+
+    // /topic/room/{code}/state/{id} and /topic/matchmaking/{ticket}; other segments are fixed names
+    private String anonymizeDestination(String destination) {
+        String[] parts = destination.split("/", -1);
+        if (parts.length > 3 && "room".equals(parts[2])) parts[3] = alias("R", parts[3]);
+        if (parts.length > 5 && "state".equals(parts[4])) parts[5] = alias("P", parts[5]);
+        if (parts.length > 3 && "matchmaking".equals(parts[2])) parts[3] = alias("T", parts[3]);
+        return String.join("/", parts);
+    }
+
+    private String alias(String prefix, String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(aliasKey);
+            byte[] digest = mac.doFinal((prefix + value).getBytes(StandardCharsets.UTF_8));
+            return prefix + HexFormat.of().formatHex(digest, 0, 6);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot derive capture alias", e);
+        }
+    }
+
+    private Map<String, Object> record(String kind) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("t", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        record.put("k", kind);
+        return record;
+    }
+
+    private void offer(Map<String, Object> record) {
+        if (!pending.offer(record)) dropped.increment();
+    }
+
+    // ── Writer thread ──
+
+    private void drain() {
+        if (pending.isEmpty()) return;
+        List<Map<String, Object>> batch = new ArrayList<>(pending.size());
+        pending.drainTo(batch);
+        try {
+            if (out == null) {
+                Files.createDirectories(file.getParent());
+                out = new BufferedWriter(new OutputStreamWriter(
+                        new GZIPOutputStream(Files.newOutputStream(file), true), StandardCharsets.UTF_8));
+            }
+            for (Map<String, Object> record : batch) {
+                out.write(objectMapper.writeValueAsString(record));
+                out.newLine();
+            }
+            // Sync flush: the file stays readable while the node keeps running
+            out.flush();
+            written.increment(batch.size());
+        } catch (IOException e) {
+            dropped.increment(batch.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!enabled) return;
+        drain();
+        try {
+            if (out != null) out.close();
+        } catch (IOException e) {
+            // Everything up to the last flush is already readable
+        }
+    }
+}
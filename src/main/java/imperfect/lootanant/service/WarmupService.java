@@ -0,0 +1,138 @@
+package imperfect.lootanant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import imperfect.lootanant.model.GameRoom;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NativeDetector;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs synthetic all-CPU games before the node reports ready, so the first
+ * real players do not pay for interpreted bidding, CPU turns, state building
+ * and Jackson serialization. The games run on a throwaway GameService whose
+ * broadcasts are serialized with the real converter and then discarded (see
+ * {@link GameSandbox}). Warm-up stops once JIT
+ * compile time stops growing, or when the budget or game cap is reached.
+ * Readiness stays REFUSING_TRAFFIC until then, because Spring Boot publishes
+ * ACCEPTING_TRAFFIC only after runners return.
+ */
+@Service
+public class WarmupService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupService.class);
+    private static final String[] MODES = {"classic", "rage", "sealed", "classic"};
+    private static final int TABLE_SIZE = 4;
+
+    private final SimpMessagingTemplate brokerTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher events;
+    private final boolean enabled;
+    private final long budgetMillis;
+    private final int maxGames;
+    private final long quietCompileMillis;
+
+    private volatile long durationMillis = 0;
+    private volatile int gamesPlayed = 0;
+
+    public WarmupService(SimpMessagingTemplate brokerTemplate, ObjectMapper objectMapper,
+                         ApplicationEventPublisher events, MeterRegistry meterRegistry,
+                         @Value("${lootanant.warmup.enabled:true}") boolean enabled,
+                         @Value("${lootanant.warmup.budget-ms:15000}") long budgetMillis,
+                         @Value("${lootanant.warmup.max-games:200}") int maxGames,
+                         @Value("${lootanant.warmup.quiet-compile-ms:20}") long quietCompileMillis) {
+        this.brokerTemplate = brokerTemplate;
+        this.objectMapper = objectMapper;
+        this.events = events;
+        this.enabled = enabled;
+        this.budgetMillis = budgetMillis;
+        this.maxGames = maxGames;
+        this.quietCompileMillis = quietCompileMillis;
+        Gauge.builder("lootanant.warmup.duration", this, w -> w.durationMillis).baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("lootanant.warmup.games", this, w -> w.gamesPlayed).register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        // Nothing to warm in a native image, and no way to tell when the JIT is done without the bean
+        if (!enabled || NativeDetector.inNativeImage() || jit == null || !jit.isCompilationTimeMonitoringSupported()) {
+            return;
+        }
+        AvailabilityChangeEvent.publish(events, this, ReadinessState.REFUSING_TRAFFIC);
+        GameSandbox sandbox = new GameSandbox(discardingTemplate(), objectMapper);
+
+        long start = System.nanoTime();
+        long deadline = start + Duration.ofMillis(budgetMillis).toNanos();
+        long compiled = jit.getTotalCompilationTime();
+        String stoppedBy = "budget";
+        try {
+            while (System.nanoTime() < deadline) {
+                if (gamesPlayed >= maxGames) {
+                    stoppedBy = "max-games";
+                    break;
+                }
+                gamesPlayed += playBatch(sandbox, deadline);
+                long now = jit.getTotalCompilationTime();
+                if (now - compiled < quietCompileMillis) {
+                    stoppedBy = "jit-quiet";
+                    break;
+                }
+                compiled = now;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stoppedBy = "interrupted";
+        } finally {
+            sandbox.close();
+        }
+        durationMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        log.info("Warm-up finished in {} ms: {} synthetic games, JIT total {} ms, stopped by {}",
+                durationMillis, gamesPlayed, jit.getTotalCompilationTime(), stoppedBy);
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    // One game per mode, all seats played by CPUs (the host is marked absent, so a stand-in takes their turns)
+    private int playBatch(GameSandbox sandbox, long deadline) throws InterruptedException {
+        List<GameRoom> batch = new ArrayList<>(MODES.length);
+        for (String mode : MODES) {
+            GameRoom room = sandbox.startCpuGame("Warmup", mode, TABLE_SIZE);
+            if (room == null) break;
+            batch.add(room);
+        }
+        int finished = 0;
+        for (GameRoom room : batch) {
+            boolean done = GameSandbox.awaitFinished(room, deadline);
+            sandbox.games().getPublicState(room.getSnapshot(), room.getHostId());
+            if (done) finished++;
+        }
+        return finished;
+    }
+
+    // Same converter as the broker template, so Jackson is warmed too, but nothing leaves the process
+    private SimpMessagingTemplate discardingTemplate() {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> true);
+        template.setMessageConverter(brokerTemplate.getMessageConverter());
+        return template;
+    }
+}
@@ -0,0 +1,1080 @@
+// ── State ──
+let roomCode='', playerId='', hostId='', stompClient=null, timerInterval=null;
+let prevState=null, roundNum=0, prevTurnPlayerId=null, renameTimeout=null;
+// Player id -> roundtable seat element, reused across renders
+const seatCache=new Map();
+let isSpectator = false;
+let hasPendingAction = false; // Guard against double-action from stale state
+let selectedGameMode = 'classic';
+let selectedPacing = 'standard';
+let turnSeconds = 20;
+let roundBannerMs = 5000;
+let currentGameMode = 'classic';
+let prevVaultAmount = 0;
+let ledgerCollapsed = true;
+
+// ── Mode Selection ──
+function selectMode(mode){
+  selectedGameMode=mode;
+  document.getElementById('modeClassic').classList.toggle('selected',mode==='classic');
+  document.getElementById('modeRage').classList.toggle('selected',mode==='rage');
+  document.getElementById('modeSealed').classList.toggle('selected',mode==='sealed');
+}
+
+function selectPacing(pacing){
+  selectedPacing=pacing;
+  document.getElementById('paceStandard').classList.toggle('selected',pacing==='standard');
+  document.getElementById('paceBlitz').classList.toggle('selected',pacing==='blitz');
+  document.getElementById('paceBullet').classList.toggle('selected',pacing==='bullet');
+}
+
+// ── Manual Tabs ──
+function switchManualTab(tab){
+  document.querySelectorAll('.manual-tab').forEach(t=>t.classList.remove('active'));
+  document.querySelectorAll('.manual-tab-content').forEach(t=>t.classList.remove('active'));
+  if(tab==='classic'){
+    document.querySelectorAll('.manual-tab')[0].classList.add('active');
+    document.getElementById('manualClassic').classList.add('active');
+  } else if(tab==='rage'){
+    document.querySelectorAll('.manual-tab')[1].classList.add('active');
+    document.getElementById('manualRage').classList.add('active');
+  } else {
+    document.querySelectorAll('.manual-tab')[2].classList.add('active');
+    document.getElementById('manualSealed').classList.add('active');
+  }
+}
+
+// ── Persistence ──
+function saveSession(){
+  if(roomCode && playerId) {
+    localStorage.setItem('lootanant_session', JSON.stringify({roomCode, playerId, hostId, isSpectator}));
+  }
+}
+function loadSession(){
+  const s = localStorage.getItem('lootanant_session');
+  return s ? JSON.parse(s) : null;
+}
+function clearSession(){
+  localStorage.removeItem('lootanant_session');
+}
+
+window.onload = async () => {
+  const s = loadSession();
+  if(s) {
+    // Try to reconnect
+    const res = await fetch('/api/reconnect', {
+      method: 'POST',
+      headers: {'Content-Type': 'application/json'},
+      body: JSON.stringify({roomCode: s.roomCode, playerId: s.playerId})
+    });
+    if(res.ok) {
+      roomCode = s.roomCode; playerId = s.playerId; hostId = s.hostId; isSpectator = s.isSpectator;
+      connectWS();
+    } else {
+      clearSession();
+    }
+  }
+};
+
+// ── Screen helpers ──
+function show(id){document.querySelectorAll('.screen').forEach(s=>s.classList.remove('active'));document.getElementById(id).classList.add('active')}
+function showManual(){show('manual')}
+function showLobby(){show('lobby')}
+function toast(msg,dur){
+  const t=document.getElementById('toast');
+  t.textContent=msg;t.classList.add('show');
+  setTimeout(()=>t.classList.remove('show'),dur||6000);
+}
+
+function showRoundBanner(title,text,extra,duration){
+  const b=document.getElementById('roundBanner');
+  document.getElementById('roundBannerTitle').textContent=title;
+  document.getElementById('roundBannerText').textContent=text;
+  // Add round number if available
+  let existingRN=b.querySelector('.round-number');
+  if(extra){
+    if(!existingRN){existingRN=document.createElement('div');existingRN.className='round-number';b.appendChild(existingRN);}
+    existingRN.textContent=extra;
+  } else if(existingRN){existingRN.remove();}
+  b.classList.add('show');
+  setTimeout(()=>b.classList.remove('show'),duration||5000);
+}
+
+function showTurnBanner(msg){
+  const b=document.getElementById('turnBanner');
+  b.textContent=msg;b.classList.add('show');
+  setTimeout(()=>b.classList.remove('show'),3500);
+}
+
+// ── API helpers ──
+// Player-chosen text going into an HTML template
+function esc(s){return String(s).replace(/[&<>"']/g,c=>({'&':'&amp;','<':'&lt;','>':'&gt;','"':'&quot;',"'":'&#39;'}[c]))}
+// X-Player-Id lets the server rate-limit the call before it parses the body
+async function api(path,body){
+  const headers={'Content-Type':'application/json'}, id=body.playerId||body.hostId;
+  if(id) headers['X-Player-Id']=id;
+  const r=await fetch('/api'+path,{method:'POST',headers,body:JSON.stringify(body)});return r.json()
+}
+
+// ── Create Room ──
+async function createRoom(){
+  const name=document.getElementById('nameInput').value.trim()||'Host';
+  const data=await api('/create',{name,gameMode:selectedGameMode,pacing:selectedPacing});
+  if(data.error){toast(data.error+(data.retryAfter?' (retry in '+data.retryAfter+'s)':''));return}
+  roomCode=data.roomCode;playerId=data.playerId;hostId=data.hostId;isSpectator=false;
+  currentGameMode=data.gameMode||'classic';
+  saveSession();
+  document.getElementById('roomCodeDisplay').textContent=roomCode;
+  document.getElementById('hostControls').style.display='flex';
+  document.getElementById('gameSettings').style.display='flex';
+  document.getElementById('waitMsg').textContent='Waiting for players… (min 2 to start)';
+  show('waitingRoom');
+  connectWS();
+}
+
+// ── Quick Play (pre-built CPU room, already started) ──
+async function quickPlay(){
+  const name=document.getElementById('nameInput').value.trim()||'Player';
+  const data=await api('/quickplay',{name,gameMode:selectedGameMode,pacing:selectedPacing,seats:4});
+  if(data.error){toast(data.error+(data.retryAfter?' (retry in '+data.retryAfter+'s)':''));return}
+  roomCode=data.roomCode;playerId=data.playerId;hostId='';isSpectator=false;
+  currentGameMode=data.gameMode||'classic';
+  saveSession();
+  document.getElementById('roomCodeDisplay').textContent=roomCode;
+  document.getElementById('hostControls').style.display='none';
+  document.getElementById('gameSettings').style.display='none';
+  document.getElementById('waitMsg').textContent='Table ready — starting shortly…';
+  show('waitingRoom');
+  connectWS();
+}
+
+// ── Join Room ──
+async function joinRoom(){
+  const name=document.getElementById('nameInput').value.trim()||'Player';
+  const code=document.getElementById('joinCodeInput').value.trim().toUpperCase();
+  if(!code){toast('Enter a room code!');return}
+  const data=await api('/join',{roomCode:code,name});
+  if(data.error){toast(data.error);return}
+  roomCode=code;playerId=data.playerId;hostId='';isSpectator=false;
+  currentGameMode=data.gameMode||'classic';
+  saveSession();
+  document.getElementById('roomCodeDisplay').textContent=roomCode;
+  document.getElementById('hostControls').style.display='none';
+  document.getElementById('gameSettings').style.display='none';
+  document.getElementById('waitMsg').textContent='Waiting for host to start…';
+  show('waitingRoom');
+  connectWS();
+}
+
+// ── Matchmaking ──
+let matchmakingTicket='', matchmakingClient=null;
+async function joinMatchmaking(){
+  const name=document.getElementById('nameInput').value.trim()||'Player';
+  const data=await api('/matchmaking/join',{name,gameMode:selectedGameMode});
+  if(data.error){toast(data.error+(data.retryAfter?' (retry in '+data.retryAfter+'s)':''));return}
+  matchmakingTicket=data.ticketId;
+  document.getElementById('matchmakingStatus').textContent='Position in queue: '+data.position;
+  show('matchmakingScreen');
+  matchmakingClient=openStomp(client=>{
+    matchmakingClient=client;
+    matchmakingClient.subscribe('/topic/matchmaking/'+matchmakingTicket, msg=>{
+      const m=JSON.parse(msg.body);
+      if(m.status==='queued'){
+        document.getElementById('matchmakingStatus').textContent='Position in queue: '+(m.approximate?'~':'')+m.position+' of '+m.queued;
+      } else if(m.status==='matched'){
+        matchmakingClient.disconnect();matchmakingClient=null;matchmakingTicket='';
+        roomCode=m.roomCode;playerId=m.playerId;hostId=m.hostId||'';isSpectator=false;
+        currentGameMode=m.gameMode||'classic';
+        saveSession();
+        document.getElementById('roomCodeDisplay').textContent=roomCode;
+        document.getElementById('hostControls').style.display='none';
+        document.getElementById('gameSettings').style.display='none';
+        document.getElementById('waitMsg').textContent='Table found — starting shortly…';
+        show('waitingRoom');
+        connectWS();
+      }
+    });
+  });
+}
+async function leaveMatchmaking(){
+  if(matchmakingTicket) await api('/matchmaking/leave',{ticketId:matchmakingTicket});
+  if(matchmakingClient){matchmakingClient.disconnect();matchmakingClient=null}
+  matchmakingTicket='';
+  showLobby();
+}
+
+// ── Add / Remove CPU ──
+async function addCpu(){await api('/addCpu',{roomCode,hostId})}
+async function removeCpu(cpuId){await api('/removeCpu',{roomCode,hostId,cpuId})}
+
+// ── Start Game ──
+async function startGame(){
+  // Save settings before starting
+  const winNW=parseInt(document.getElementById('settingWinNW').value)||50;
+  const cents=parseInt(document.getElementById('settingAntCents').value)||12;
+  const s=await api('/settings',{roomCode,hostId,winNetWorth:winNW,startingCents:cents});
+  if(s.error){toast(s.error);return}
+  const d=await api('/start',{roomCode,hostId});if(d.error)toast(d.error)
+}
+
+async function spectateRoom(code){
+  const codeToJoin = code || document.getElementById('joinCodeInput').value.trim().toUpperCase();
+  if(!codeToJoin){toast('Enter a room code!');return}
+  const data=await api('/spectate',{roomCode:codeToJoin});
+  if(data.error){toast(data.error+(data.retryAfter?' (retry in '+data.retryAfter+'s)':''));return}
+  roomCode=codeToJoin;playerId=data.playerId;hostId='';isSpectator=true;
+  saveSession();
+  document.getElementById('roomCodeDisplay').textContent=roomCode;
+  document.getElementById('hostControls').style.display='none';
+  document.getElementById('gameSettings').style.display='none';
+  document.getElementById('waitMsg').textContent='Spectating...';
+  show('waitingRoom');
+  connectWS();
+}
+
+async function showSpectateList(){
+  const res = await fetch('/api/rooms');
+  const rooms = await res.json();
+  const list = document.getElementById('spectateList');
+  list.innerHTML = '';
+  if(rooms.length === 0){
+    list.innerHTML = '<p style="text-align:center;color:#888">No active rooms found.</p>';
+  } else {
+    rooms.forEach(r => {
+      const item = document.createElement('div');
+      item.className = 'room-item';
+      item.innerHTML = `
+        <div class="room-info">
+          <b>Room: ${r.roomCode}</b>
+          <span>Host: ${esc(r.hostName)}</span>
+        </div>
+        <button class="btn-primary btn-small">📺 Watch</button>
+      `;
+      item.onclick = () => spectateRoom(r.roomCode);
+      list.appendChild(item);
+    });
+  }
+  show('spectateListScreen');
+}
+
+async function showLeaderboard(){
+  const res = await fetch('/api/leaderboard?limit=20');
+  const data = await res.json();
+  const list = document.getElementById('leaderboardList');
+  list.innerHTML = '';
+  if(!data.players || data.players.length === 0){
+    list.innerHTML = '<p style="text-align:center;color:#888">No finished games yet.</p>';
+  } else {
+    data.players.forEach(p => {
+      // Names are player-chosen and shown to every visitor: text nodes only
+      const item = document.createElement('div');
+      item.className = 'room-item';
+      const info = document.createElement('div');
+      info.className = 'room-info';
+      const title = document.createElement('b');
+      title.textContent = `#${p.rank} ${p.name}`;
+      const games = document.createElement('span');
+      games.textContent = `${p.games} game${p.games!==1?'s':''} played`;
+      info.append(title, games);
+      const wins = document.createElement('span');
+      wins.textContent = `🏆 ${p.wins}`;
+      item.append(info, wins);
+      list.appendChild(item);
+    });
+  }
+  show('leaderboardScreen');
+}
+
+async function leaveGame(){
+  if(!confirm('Are you sure you want to leave? Your progress will be lost.')) return;
+  await api('/leave', {roomCode, playerId});
+  clearSession();
+  location.reload();
+}
+async function leaveSpectator(){
+  await api('/leave', {roomCode, playerId});
+  clearSession();
+  location.reload();
+}
+async function discardRoom(){
+  if(!confirm('Are you sure? This will close the room for everyone.')) return;
+  await api('/discardRoom', {roomCode, hostId});
+  clearSession();
+  location.reload();
+}
+
+// ── Rename ──
+function scheduleRename(newName){
+  if(renameTimeout)clearTimeout(renameTimeout);
+  renameTimeout=setTimeout(()=>{
+    api('/rename',{roomCode,playerId,name:newName});
+  },400);
+}
+
+// ── WebSocket ──
+// Native WebSocket on /stomp first; SockJS on /ws only if that fails before STOMP connects
+function openStomp(onConnect){
+  const url=(location.protocol==='https:'?'wss://':'ws://')+location.host+'/stomp';
+  const client=Stomp.client(url);
+  client.debug=null;
+  let connected=false;
+  client.connect({},()=>{connected=true;onConnect(client)},()=>{
+    if(connected)return;
+    const fallback=Stomp.over(new SockJS('/ws'));
+    fallback.debug=null;
+    fallback.connect({},()=>onConnect(fallback));
+  });
+  return client;
+}
+function connectWS(){
+  stompClient=openStomp(client=>{
+    stompClient=client;
+    // Personal state channel
+    stompClient.subscribe('/topic/room/'+roomCode+'/state/'+playerId, msg=>queueState(JSON.parse(msg.body)));
+    // Room discarded event
+    stompClient.subscribe('/topic/room/'+roomCode+'/roomDiscarded', msg=>{
+      toast('Room has been discarded by the host.');
+      clearSession();
+      location.reload();
+    });
+    // Game started event (ensures all players transition)
+    stompClient.subscribe('/topic/room/'+roomCode+'/gameStarted', msg=>{
+      // Force fetch state and switch to game
+      fetch('/api/state/'+roomCode+'/'+playerId).then(r=>r.json()).then(state=>{
+        if(state.started) queueState(state);
+      });
+    });
+    // Income phase animation
+    stompClient.subscribe('/topic/room/'+roomCode+'/incomePhase', msg=>{
+      const data=JSON.parse(msg.body);
+      playIncomeAnimation(data);
+      addLedgerItem('👑 King\'s Allowance: +1¢ for everyone');
+    });
+    // Round results
+    stompClient.subscribe('/topic/room/'+roomCode+'/roundResult', msg=>{
+      const r=JSON.parse(msg.body);
+      if(r.sealedBids){
+        // Window closed: hide the console and reveal every bid
+        document.getElementById('bidConsole').style.display='none';
+        stopTimerBar();
+        addLedgerItem('🔒 Bids: '+r.sealedBids.map(b=>b.playerName+' '+(b.bid>0?b.bid+'¢':'pass')).join(', '));
+      }
+      if(r.discarded){
+        showRoundBanner('Bar Discarded!','No bids this round.','Round '+(roundNum)+' ended',roundBannerMs);
+        addLedgerItem('Round '+roundNum+': Gold bar discarded (no bids)');
+      } else {
+        let winMsg='Paid '+r.bidPaid+' ¢ for a '+r.purity+'k purity gold bar.';
+        if(r.jackpotRound && r.jackpotAmount){
+          winMsg='Paid '+r.bidPaid+' ¢ for a '+r.purity+'k bar + 💰 '+r.jackpotAmount+' ¢ JACKPOT from the Vault!';
+          toast('🎰 VAULT JACKPOT! '+r.roundWinner+' wins '+r.jackpotAmount+' ¢ from the King\'s Vault! (max 20¢)',8000);
+          addLedgerItem('🎰 '+r.roundWinner+' won JACKPOT! +'+r.jackpotAmount+'¢ from Vault', true);
+        }
+        showRoundBanner(r.jackpotRound?'🎰 JACKPOT! '+r.roundWinner+' Wins!':'🔨 '+r.roundWinner+' Wins the Bid!',winMsg,'Round '+(roundNum)+' ended',roundBannerMs);
+        addLedgerItem('Round '+roundNum+': '+r.roundWinner+' won '+r.purity+'k bar for '+r.bidPaid+'¢');
+      }
+    });
+    // Rage events (bribe, loan, taxation)
+    stompClient.subscribe('/topic/room/'+roomCode+'/rageEvent', msg=>{
+      const evt=JSON.parse(msg.body);
+      if(evt.type==='bribe'){
+        toast('🗡️ '+evt.message,4000);
+        addLedgerItem('🗡️ '+evt.message, true);
+      } else if(evt.type==='loan'){
+        toast('🏦 '+evt.message,4000);
+        addLedgerItem('🏦 '+evt.message, true);
+        // Shake vault animation
+        const vault=document.getElementById('kingsVault');
+        vault.classList.add('shake');
+        setTimeout(()=>vault.classList.remove('shake'),600);
+      } else if(evt.type==='taxation'){
+        // Play reverse coin animation (players → vault) before showing overlay
+        playTaxReverseAnimation(evt.details);
+        setTimeout(()=>showTaxOverlay(evt),1200);
+        addLedgerItem('💸 Tax collected: '+evt.totalCollected+'¢ → Vault: '+evt.vaultTotal+'¢');
+      }
+    });
+    // Reactions: one aggregated count frame per window
+    stompClient.subscribe('/topic/room/'+roomCode+'/reactions', msg=>{
+      JSON.parse(msg.body).counts.forEach((n,i)=>{ if(n>0) floatReaction(REACTIONS[i],n); });
+    });
+    // Chat: batched frames per channel, then backfill from the history ring
+    ['players','spectators'].forEach(ch=>{
+      stompClient.subscribe('/topic/room/'+roomCode+'/chat/'+ch, msg=>{
+        JSON.parse(msg.body).messages.forEach(m=>addChatLine(ch,m));
+      });
+    });
+    fetch('/api/chat/'+roomCode+'/'+playerId).then(r=>r.ok?r.json():null).then(h=>{
+      if(!h)return;
+      ['players','spectators'].forEach(ch=>h[ch].forEach(m=>addChatLine(ch,m)));
+    });
+    document.getElementById('chatToggle').style.display='flex';
+    // Winner
+    stompClient.subscribe('/topic/room/'+roomCode+'/winner', msg=>{
+      const w=JSON.parse(msg.body);
+      document.getElementById('winnerTitle').textContent=w.winnerName;
+      document.getElementById('winnerOverlay').classList.add('active');
+    });
+    // Request initial state
+    fetch('/api/state/'+roomCode+'/'+playerId).then(r=>r.json()).then(queueState);
+  });
+}
+
+// ── Render batching ──
+// Frames can arrive faster than a slow phone paints; keep only the newest and render once per animation frame
+let pendingState=null, renderQueued=false;
+function queueState(state){
+  pendingState=state;
+  if(renderQueued)return;
+  renderQueued=true;
+  requestAnimationFrame(()=>{
+    renderQueued=false;
+    const s=pendingState;
+    pendingState=null;
+    if(!s.started) renderWaiting(s);
+    else if(!s.finished||!prevState) renderGame(s);
+  });
+}
+// Patch helpers: touch the DOM only when the value actually changed
+function setText(el,text){ if(el.textContent!==text) el.textContent=text; }
+function setDisplay(el,value){ if(el.style.display!==value) el.style.display=value; }
+
+// ── Render Waiting ──
+function renderWaiting(state){
+  // Sync settings display for host
+  if(hostId&&state.winNetWorth!=null){
+    const nwInput=document.getElementById('settingWinNW');
+    const acInput=document.getElementById('settingAntCents');
+    if(nwInput&&document.activeElement!==nwInput)nwInput.value=state.winNetWorth;
+    if(acInput&&document.activeElement!==acInput)acInput.value=state.startingAntCents;
+  }
+  const ul=document.getElementById('waitPlayerList');
+  // Check if the rename input is currently focused — if so, skip re-render to avoid mobile keyboard dismissal
+  const activeEl=document.activeElement;
+  const renameInputFocused=activeEl&&activeEl.tagName==='INPUT'&&activeEl.closest('.player-list-wait');
+  if(renameInputFocused){
+    // Only update other players' names without touching the focused input
+    const items=ul.querySelectorAll('li');
+    let idx=0;
+    state.players.forEach(p=>{
+      if(idx<items.length){
+        if(!p.isYou){
+          if(p.cpu) items[idx].textContent='🤖 '+p.displayName;
+          else items[idx].textContent='🐜 '+p.displayName;
+        }
+      }
+      idx++;
+    });
+    return;
+  }
+  const listKey=JSON.stringify(state.players.map(p=>[p.id,p.displayName,p.cpu,p.isYou]))+(hostId&&!state.started);
+  if(ul._key===listKey)return;
+  ul._key=listKey;
+  ul.innerHTML='';
+  state.players.forEach(p=>{
+    const li=document.createElement('li');
+    if(p.cpu){
+      li.classList.add('cpu');
+      li.textContent='🤖 '+p.displayName;
+      // Add remove button for host
+      if(hostId && !state.started){
+        const removeBtn=document.createElement('button');
+        removeBtn.textContent='➖';
+        removeBtn.style.cssText='margin-left:8px;background:#e94560;color:#fff;border:none;border-radius:50%;width:22px;height:22px;font-size:.7rem;cursor:pointer;padding:0;line-height:22px';
+        removeBtn.onclick=()=>removeCpu(p.id);
+        li.appendChild(removeBtn);
+      }
+    } else if(p.isYou){
+      const lbl=document.createElement('span');
+      lbl.textContent='⭐ ';
+      li.appendChild(lbl);
+      const inp=document.createElement('input');
+      inp.value=p.displayName;
+      inp.maxLength=16;
+      inp.placeholder='Your name';
+      inp.addEventListener('input',()=>scheduleRename(inp.value.trim()||'Player'));
+      li.appendChild(inp);
+    } else {
+      li.textContent='🐜 '+p.displayName;
+    }
+    ul.appendChild(li);
+  });
+}
+
+// ── Seat positions for roundtable ──
+function getSeatPositions(count){
+  // Arrange seats in a circle around center
+  const positions=[];
+  const isMobile=window.innerWidth<=600;
+    const rx=isMobile?44:40, ry=isMobile?44:40; // % from center
+  for(let i=0;i<count;i++){
+    const angle=(2*Math.PI*i/count)-Math.PI/2; // start from top
+    const x=50+rx*Math.cos(angle);
+    const y=50+ry*Math.sin(angle);
+    positions.push({x,y});
+  }
+  return positions;
+}
+
+// ── Render Game ──
+function renderGame(state){
+  show('gameBoard');
+  renderReactionBar();
+  currentGameMode=state.gameMode||'classic';
+  turnSeconds=state.turnSeconds||20;
+  roundBannerMs=(state.incomeSeconds||5)*1000;
+  setText(document.getElementById('boardRoomCode'),'Room: '+state.roomCode+(currentGameMode==='rage'?' 👑':currentGameMode==='sealed'?' 🔒':''));
+  setText(document.getElementById('highBidAmount'),String(state.currentHighBid));
+
+  // Rage mode: King's Vault
+  const vaultEl=document.getElementById('kingsVault');
+  const ragePanelEl=document.getElementById('ragePanel');
+  if(currentGameMode==='rage'){
+    setDisplay(vaultEl,'flex');
+    const vaultAmt=state.kingsVault||0;
+    setText(document.getElementById('vaultAmount'),vaultAmt+' ¢');
+    // Glow effect when vault grows
+    if(vaultAmt>prevVaultAmount){
+      vaultEl.classList.add('glow');
+      setTimeout(()=>vaultEl.classList.remove('glow'),1500);
+    }
+    prevVaultAmount=vaultAmt;
+    // Tax countdown & jackpot info
+    const nextTax=state.nextTaxRound||0;
+    const nextJackpot=state.nextJackpotRound||0;
+    let countdownText;
+    if(nextTax===0) countdownText='💸 Tax this round!';
+    else countdownText='Tax in '+nextTax+' round'+(nextTax!==1?'s':'');
+    if(state.isJackpotRound) countdownText='🎰 JACKPOT ROUND!';
+    else if(nextJackpot===0) countdownText+=' | 🎰 Jackpot this round!';
+    else countdownText+=' | Jackpot in '+nextJackpot;
+    setText(document.getElementById('taxCountdown'),countdownText);
+    // Update tax confirmation status if overlay is showing
+    updateTaxConfirmStatus(state);
+    // Rage panel (only for non-spectators)
+    if(!state.isSpectator){
+      setDisplay(ragePanelEl,'flex');
+      // Loan button: only enabled if player has < 3 cents
+      const me=state.players.find(p=>p.id===playerId);
+      const loanBtn=document.getElementById('loanBtn');
+      const canLoan=!!(me&&me.cents<3&&vaultAmt>=5);
+      if(loanBtn.disabled===canLoan){
+        loanBtn.disabled=!canLoan;loanBtn.style.opacity=canLoan?'1':'.4';
+      }
+    } else {
+      setDisplay(ragePanelEl,'none');
+    }
+  } else {
+    setDisplay(vaultEl,'none');
+    setDisplay(ragePanelEl,'none');
+  }
+
+  // Sync round number from server
+  roundNum=state.roundNumber||0;
+
+  // Deed card
+  const purityEl=document.getElementById('deedValue');
+  const goldBarCard=document.getElementById('deedCard');
+  if(!prevState||prevState.currentGoldBarPurity!==state.currentGoldBarPurity){
+    purityEl.textContent=state.currentGoldBarPurity+'k';
+    // Show winning point once at game start
+    if(!prevState) toast('🏆 Target Net Worth: '+state.winNetWorth+' — First to reach it wins!',5000);
+    goldBarCard.classList.remove('flip-in','jackpot-card');
+    void goldBarCard.offsetWidth;
+    goldBarCard.classList.add('flip-in');
+    if(currentGameMode==='rage'&&state.isJackpotRound) goldBarCard.classList.add('jackpot-card');
+    if(prevState&&prevState.currentGoldBarPurity!==state.currentGoldBarPurity){
+      const isJackpot=currentGameMode==='rage'&&state.isJackpotRound;
+      if(isJackpot){
+        toast('🎰 JACKPOT ROUND '+roundNum+'! Winner gets the gold bar + up to 20¢ from the Vault!',8000);
+        showRoundBanner('🎰 Jackpot Round!','A '+state.currentGoldBarPurity+'k gold bar — Key to the Vault! Winner takes up to 20¢ (Vault: '+((state.kingsVault||0))+' ¢)!','📢 Round '+roundNum+' starts now!', 1000);
+      } else {
+        toast('📢 A new round has started! Round '+roundNum,6000);
+        showRoundBanner('🧈 New Gold Bar!','📢 Round '+roundNum+' starts now!', null, 1000);
+      }
+    }
+  }
+
+  // High bidder name (sealed mode overrides this below)
+  const hb=state.players.find(p=>p.id===state.currentHighBidderId);
+  const highBidderEl=document.getElementById('highBidder');
+
+  // Current turn (sealed mode: everyone bids at once while the window is open)
+  const ct=state.players.find(p=>p.id===state.currentTurnPlayerId);
+  const sealed=currentGameMode==='sealed';
+  const meNow=state.players.find(p=>p.id===playerId);
+  const isMyTurn=sealed?(state.sealedBidOpen&&meNow&&!meNow.sealedBidSubmitted):state.currentTurnPlayerId===playerId;
+  setText(highBidderEl,sealed&&state.sealedBidOpen?'Bids are sealed':hb?('by '+hb.displayName):'No bids yet');
+  const turnEl=document.getElementById('turnIndicator');
+  if(state.isSpectator) setText(turnEl,((state.currentTurnPlayerId||state.sealedBidOpen)&&!state.finished)?'Watching...':(state.finished?'Game Over':'Waiting...'));
+  else if(sealed) setText(turnEl,state.sealedBidOpen?(isMyTurn?'🔒 Place your sealed bid!':'🔒 Bid sealed — waiting…'):'');
+  else setText(turnEl,ct?(isMyTurn?'🎯 Your Turn!':'⏳ '+ct.displayName+"'s turn"):'');
+
+  // Turn change animation
+  if(prevState && state.currentTurnPlayerId && state.currentTurnPlayerId !== prevTurnPlayerId){
+    if(isMyTurn && !state.isSpectator){
+      showTurnBanner('🎯 Your Turn!');
+    } else if(ct){
+      showTurnBanner('⏳ '+ct.displayName+"'s turn");
+    }
+  }
+  prevTurnPlayerId=state.currentTurnPlayerId;
+
+  // Ranking area (top 3)
+  const rankArea=document.getElementById('rankingArea');
+  const sorted=[...state.players].sort((a,b)=>b.netWorth-a.netWorth);
+  const top3=sorted.slice(0,3);
+  const medals=['🥇','🥈','🥉'];
+  const rankKey=currentGameMode+'|'+top3.map(p=>p.id+':'+p.displayName+':'+p.netWorth+':'+(p.bribed?1:0)).join('|');
+  if(rankArea._key!==rankKey){
+    rankArea._key=rankKey;
+    rankArea.innerHTML='<h4>🏆 Top Ranking</h4>'+top3.map((p,i)=>{
+      const bribeMark=(currentGameMode==='rage'&&p.bribed)?'⚠️ ':'';
+      return `<div class="ranking-row"><span class="rank-medal">${medals[i]}</span><span class="rank-name">${bribeMark}${esc(p.displayName)}${p.id===playerId?' (You)':''}</span><span class="rank-nw">${p.netWorth} 🧈</span></div>`;
+    }).join('');
+  }
+
+  // Roundtable player seats: one persistent card per player id, patched in place
+  const table=document.getElementById('roundtable');
+  const ids=new Set(state.players.map(p=>p.id));
+  seatCache.forEach((seat,id)=>{ if(!ids.has(id)){ seat.remove(); seatCache.delete(id); } });
+  const seats=getSeatPositions(state.players.length);
+  state.players.forEach((p,i)=>{
+    let seat=seatCache.get(p.id);
+    if(!seat){
+      seat=document.createElement('div');
+      seat.className='player-seat';
+      seat.style.transform='translate(-50%,-50%)';
+      const newCard=document.createElement('div');
+      newCard.className='player-card';
+      seat.appendChild(newCard);
+      table.appendChild(seat);
+      seatCache.set(p.id,seat);
+    }
+    const left=seats[i].x+'%', top=seats[i].y+'%';
+    if(seat.style.left!==left) seat.style.left=left;
+    if(seat.style.top!==top) seat.style.top=top;
+
+    const card=seat.firstChild;
+    card.classList.toggle('active-turn',p.id===state.currentTurnPlayerId);
+    card.classList.toggle('passed',!!p.passed);
+    card.classList.toggle('winner-card',p.id===state.winnerId);
+
+    const bribeIcon=(currentGameMode==='rage'&&p.bribed)?'<span class="bribe-indicator">⚠️</span>':'';
+    const html=`
+      ${bribeIcon}
+      <div class="avatar">${p.cpu?'🤖':(p.connected?'🐜':'😴')}</div>
+      ${p.id===playerId?'<span class="you-badge">YOU</span>':''}
+      <div class="pname">${esc(p.displayName)}</div>
+      <div class="stat nw">🧈 <b>${p.netWorth}</b></div>
+      ${p.id===playerId?`<div class="stat">¢ ${p.cents}</div>`:''}
+      ${p.passed?'<div class="stat" style="color:#e94560">Passed</div>':''}
+      ${!p.connected?'<div class="stat" style="color:#888">Disconnected</div>':''}
+    `;
+    if(card._html!==html){
+      card._html=html;
+      card.innerHTML=html;
+      // Net worth went up since the last paint
+      const prev=prevState&&prevState.players.find(pp=>pp.id===p.id);
+      if(prev&&p.netWorth>prev.netWorth) card.querySelector('.nw').classList.add('nw-pop');
+    }
+
+    // New high bidder: replay the glow on their card
+    if(prevState&&prevState.currentHighBidderId!==state.currentHighBidderId&&p.id===state.currentHighBidderId){
+      card.classList.remove('bid-win-glow');
+      void card.offsetWidth;
+      card.classList.add('bid-win-glow');
+    }
+  });
+
+  // Bid console — only show if it's truly our turn and we haven't already acted
+  const console_=document.getElementById('bidConsole');
+  if(isMyTurn && !state.finished && !state.isSpectator && !hasPendingAction){
+    const minBid=sealed?1:state.currentHighBid+1;
+    const me=state.players.find(p=>p.id===playerId);
+    const myMoney=me?me.cents:0;
+    // A new turn (or the console coming back after a rejected action) replays the entrance and restarts the timer
+    const turnKey=state.roundNumber+':'+state.currentHighBid+':'+state.currentTurnPlayerId+':'+(state.sealedBidDeadline||0);
+    const newTurn=console_.style.display==='none'||console_._turnKey!==turnKey;
+    console_._turnKey=turnKey;
+    if(newTurn){
+      console_.style.display='flex';
+      console_.classList.remove('fade-scale');
+      void console_.offsetWidth;
+      console_.classList.add('fade-scale');
+      startTimerBar(sealed?(state.sealedBidDeadline-Date.now())/1000:turnSeconds);
+    }
+    const btns=document.getElementById('bidButtons');
+    // Buttons depend only on the bid range (a loan can change it mid-turn)
+    const rangeKey=minBid+':'+myMoney;
+    if(btns._key!==rangeKey){
+      btns._key=rangeKey;
+      btns.innerHTML='';
+      if(myMoney>=minBid){
+        // Show all available bid amounts as buttons
+        for(let b=minBid;b<=myMoney;b++){
+          const btn=document.createElement('button');
+          btn.textContent=b+' ¢';
+          btn.onclick=()=>doBid(b);
+          btns.appendChild(btn);
+        }
+      }
+    }
+    const prompt=document.getElementById('bidPrompt');
+    if(sealed) setText(prompt,myMoney>=1?`Sealed bid: pick any amount (you have ${myMoney} ¢)`:'No cents to bid — pass this round.');
+    else setText(prompt,myMoney>=minBid?`Bid at least ${minBid} ¢ (you have ${myMoney} ¢)`:'You cannot outbid — pass this round.');
+  } else if(console_.style.display!=='none'){
+    console_.style.display='none';
+    stopTimerBar();
+  }
+  if(state.isSpectator) {
+    // Show leave button for spectators (goes back to lobby)
+    const leaveBtn = document.getElementById('leaveBtn');
+    if (leaveBtn) {
+      leaveBtn.style.display = '';
+      leaveBtn.textContent = '🚪 Leave';
+      leaveBtn.onclick = leaveSpectator;
+    }
+  }
+
+  // Frames are parsed fresh and never mutated, so the last one can be kept as is
+  prevState=state;
+}
+
+// ── Actions ──
+async function doBid(amount){
+  if(hasPendingAction) return;
+  hasPendingAction=true;
+  document.getElementById('bidConsole').style.display='none';
+  stopTimerBar();
+  await api('/bid',{roomCode,playerId,amount});
+  hasPendingAction=false;
+}
+async function doPass(){
+  if(hasPendingAction) return;
+  hasPendingAction=true;
+  document.getElementById('bidConsole').style.display='none';
+  stopTimerBar();
+  await api('/pass',{roomCode,playerId});
+  hasPendingAction=false;
+}
+
+// ── Income Phase Animation ──
+function playIncomeAnimation(data){
+  // 1. Show "KING'S ALLOWANCE" overlay
+  let overlay=document.getElementById('allowanceOverlay');
+  if(!overlay){
+    overlay=document.createElement('div');
+    overlay.id='allowanceOverlay';
+    overlay.className='allowance-overlay';
+    overlay.innerHTML='<div class="allowance-icon">👑💰</div><div class="allowance-text">You Got: +1¢</div>';
+    document.body.appendChild(overlay);
+  }
+  void overlay.offsetWidth;
+  overlay.classList.add('show');
+  setTimeout(()=>overlay.classList.remove('show'),1400);
+
+  // 2. Spawn flying coins toward each player's balance area
+  const playerCards=document.querySelectorAll('.player-card');
+  const startX=window.innerWidth/2;
+  const startY=window.innerHeight/2;
+  playerCards.forEach((card,i)=>{
+    setTimeout(()=>{
+      const coin=document.createElement('div');
+      coin.className='flying-coin';
+      coin.textContent='🪙';
+      coin.style.left=startX+'px';
+      coin.style.top=startY+'px';
+      document.body.appendChild(coin);
+      const rect=card.getBoundingClientRect();
+      const endX=rect.left+rect.width/2;
+      const endY=rect.top+rect.height/2;
+      // Bezier curve via CSS transition
+      requestAnimationFrame(()=>{
+        coin.style.transition='left 0.8s cubic-bezier(.17,.67,.35,1.2), top 0.8s cubic-bezier(.17,.67,.83,.67), opacity 0.8s ease';
+        coin.style.left=endX+'px';
+        coin.style.top=endY+'px';
+        coin.style.opacity='0';
+      });
+      // 3. Balance pop when coin arrives
+      setTimeout(()=>{
+        coin.remove();
+        // Flash the balance stat green
+        const stats=card.querySelectorAll('.stat');
+        stats.forEach(s=>{
+          if(s.textContent.includes('¢')){
+            s.classList.remove('balance-pop');
+            void s.offsetWidth;
+            s.classList.add('balance-pop');
+            // Add +1¢ flash
+            const flash=document.createElement('span');
+            flash.className='balance-flash';
+            flash.textContent='+1¢';
+            card.appendChild(flash);
+            setTimeout(()=>flash.remove(),900);
+          }
+        });
+      },800);
+    },i*120);
+  });
+}
+
+// ── Tax Reverse Animation (coins fly from players to vault) ──
+function playTaxReverseAnimation(taxDetails){
+  const vaultEl=document.getElementById('kingsVault');
+  if(!vaultEl||vaultEl.style.display==='none')return;
+  const vaultRect=vaultEl.getBoundingClientRect();
+  const endX=vaultRect.left+vaultRect.width/2;
+  const endY=vaultRect.top+vaultRect.height/2;
+  const playerCards=document.querySelectorAll('.player-card');
+  playerCards.forEach((card,i)=>{
+    const detail=taxDetails&&taxDetails[i];
+    if(detail&&detail.taxAmount<=0)return;
+    setTimeout(()=>{
+      const rect=card.getBoundingClientRect();
+      const coin=document.createElement('div');
+      coin.className='tax-coin';
+      coin.textContent='🪙';
+      coin.style.left=(rect.left+rect.width/2)+'px';
+      coin.style.top=(rect.top+rect.height/2)+'px';
+      document.body.appendChild(coin);
+      requestAnimationFrame(()=>{
+        coin.style.transition='left 1s cubic-bezier(.17,.67,.35,1.2), top 1s cubic-bezier(.17,.67,.83,.67), opacity 1s ease';
+        coin.style.left=endX+'px';
+        coin.style.top=endY+'px';
+        coin.style.opacity='0';
+      });
+      setTimeout(()=>{
+        coin.remove();
+        vaultEl.classList.add('glow');
+        setTimeout(()=>vaultEl.classList.remove('glow'),800);
+      },1000);
+    },i*150);
+  });
+}
+
+// ── Timer Bar ──
+function startTimerBar(seconds){
+  stopTimerBar();
+  let remaining=Math.max(0,Math.min(turnSeconds,seconds||turnSeconds));
+  const fill=document.getElementById('timerFill');
+  fill.style.width=(remaining/turnSeconds*100)+'%';
+  timerInterval=setInterval(()=>{
+    remaining-=0.1;
+    if(remaining<=0){remaining=0;stopTimerBar()}
+    fill.style.width=(remaining/turnSeconds*100)+'%';
+  },100);
+}
+function stopTimerBar(){if(timerInterval){clearInterval(timerInterval);timerInterval=null}}
+
+// ── Rage Mode: Bribe Modal ──
+let selectedBribeTargetId=null;
+function openBribeModal(){
+  if(!prevState)return;
+  selectedBribeTargetId=null;
+  document.getElementById('bribeAmountStep').style.display='none';
+  const list=document.getElementById('bribeTargetList');
+  list.innerHTML='';
+  list.style.display='flex';
+  const me=prevState.players.find(p=>p.id===playerId);
+  const myMoney=me?me.cents:0;
+  prevState.players.forEach(p=>{
+    if(p.id===playerId)return;
+    const maxMore=(40-(p.bribeTaxPercent||0))/10;
+    const btn=document.createElement('button');
+    btn.className='bribe-target-btn';
+    btn.textContent=(p.cpu?'🤖 ':'')+p.displayName+(p.bribed?' ⚠️ '+p.bribeTaxPercent+'%':'');
+    if(maxMore<=0){
+      btn.disabled=true;btn.style.opacity='.4';
+      btn.textContent+=' (MAX)';
+    }
+    btn.onclick=()=>selectBribeTarget(p.id,p.displayName,maxMore,myMoney,p.bribeTaxPercent||0);
+    list.appendChild(btn);
+  });
+  document.getElementById('bribeModal').classList.add('active');
+}
+function selectBribeTarget(targetId,targetName,maxMore,myMoney,currentBribe){
+  selectedBribeTargetId=targetId;
+  document.getElementById('bribeTargetList').style.display='none';
+  document.getElementById('bribeAmountStep').style.display='flex';
+  document.getElementById('bribeTargetName').textContent=targetName;
+  const maxAmount=Math.min(4,maxMore,myMoney);
+  document.getElementById('bribeCapInfo').textContent='Current bribe tax: '+currentBribe+'% | Max additional: '+(maxMore*10)+'% | You have: '+myMoney+'¢';
+  const btnsDiv=document.getElementById('bribeAmountBtns');
+  btnsDiv.innerHTML='';
+  for(let i=1;i<=4;i++){
+    const btn=document.createElement('button');
+    btn.textContent=i+'¢ (+'+i*10+'%)';
+    btn.disabled=i>maxAmount;
+    btn.onclick=()=>doBribe(targetId,i);
+    btnsDiv.appendChild(btn);
+  }
+}
+function closeBribeModal(){
+  document.getElementById('bribeModal').classList.remove('active');
+  selectedBribeTargetId=null;
+}
+async function doBribe(targetId,amount){
+  closeBribeModal();
+  const res=await api('/bribe',{roomCode,playerId,targetId,amount});
+  if(res.error)toast('❌ '+res.error);
+}
+
+// ── Rage Mode: Loan Modal ──
+function openLoanModal(){
+  if(!prevState)return;
+  const vault=prevState.kingsVault||0;
+  document.getElementById('loanVaultDisplay').textContent=vault;
+  document.getElementById('loanModal').classList.add('active');
+}
+function closeLoanModal(){document.getElementById('loanModal').classList.remove('active')}
+async function doLoan(){
+  closeLoanModal();
+  const res=await api('/loan',{roomCode,playerId});
+  if(res.error)toast('❌ '+res.error);
+  else toast('🏦 Loan taken! +5¢ but lost '+res.penalty+' Karats.',5000);
+}
+
+// ── Rage Mode: Tax Overlay ──
+let taxConfirmed=false;
+function showTaxOverlay(evt){
+  // Spectators auto-dismiss tax overlay after a brief view
+  if(isSpectator){
+    const overlay=document.getElementById('taxOverlay');
+    const details=document.getElementById('taxDetails');
+    let html='<p style="color:#ffd700;font-size:1rem;margin:8px 0">Total collected: <b>'+evt.totalCollected+' ¢</b> → Vault: <b>'+evt.vaultTotal+' ¢</b></p>';
+    (evt.details||[]).forEach(d=>{
+      const bribeTag=d.hadBribe?' <span style="color:#e94560">(+bribe!)</span>':'';
+      html+='<p class="tax-detail">'+esc(d.playerName)+': -'+d.taxAmount+' ¢ ('+d.taxPercent+'% tax)'+bribeTag+'</p>';
+    });
+    details.innerHTML=html;
+    document.getElementById('taxConfirmBtn').style.display='none';
+    document.getElementById('taxConfirmStatus').textContent='Auto-dismissing (spectator)...';
+    overlay.classList.add('active');
+    const auditor=document.getElementById('taxAuditor');
+    auditor.style.animation='none';void auditor.offsetWidth;auditor.style.animation='auditorWalk 3s ease-in-out';
+    setTimeout(()=>{ overlay.classList.remove('active'); document.getElementById('taxConfirmBtn').style.display=''; },5000);
+    return;
+  }
+  taxConfirmed=false;
+  const overlay=document.getElementById('taxOverlay');
+  const details=document.getElementById('taxDetails');
+  const confirmBtn=document.getElementById('taxConfirmBtn');
+  const confirmStatus=document.getElementById('taxConfirmStatus');
+  confirmBtn.disabled=false;
+  confirmBtn.textContent='Continue';
+  confirmStatus.textContent='';
+  let html='<p style="color:#ffd700;font-size:1rem;margin:8px 0">Total collected: <b>'+evt.totalCollected+' ¢</b> → Vault: <b>'+evt.vaultTotal+' ¢</b></p>';
+  (evt.details||[]).forEach(d=>{
+    const bribeTag=d.hadBribe?' <span style="color:#e94560">(+bribe!)</span>':'';
+    html+='<p class="tax-detail">'+esc(d.playerName)+': -'+d.taxAmount+' ¢ ('+d.taxPercent+'% tax)'+bribeTag+'</p>';
+  });
+  details.innerHTML=html;
+  overlay.classList.add('active');
+  // Reset auditor animation
+  const auditor=document.getElementById('taxAuditor');
+  auditor.style.animation='none';
+  void auditor.offsetWidth;
+  auditor.style.animation='auditorWalk 3s ease-in-out';
+  // Overlay stays until player confirms (or auto-dismissed when state says no longer waiting)
+}
+async function confirmTaxRead(){
+  if(taxConfirmed)return;
+  taxConfirmed=true;
+  const btn=document.getElementById('taxConfirmBtn');
+  btn.disabled=true;
+  btn.textContent='✅ Confirmed — Waiting for others...';
+  await api('/confirmTax',{roomCode,playerId});
+}
+function updateTaxConfirmStatus(state){
+  if(!state.waitingForTaxConfirmation){
+    // Tax phase done, close overlay
+    document.getElementById('taxOverlay').classList.remove('active');
+    return;
+  }
+  const status=document.getElementById('taxConfirmStatus');
+  if(status) status.textContent=(state.taxConfirmedCount||0)+'/'+( state.taxTotalPlayers||0)+' players confirmed';
+}
+
+// ── Reactions ──
+// Order must match ReactionService.EMOTES; frames carry counts by index
+const REACTIONS=['👏','🔥','😂','😱','💰','👑'];
+function renderReactionBar(){
+  const bar=document.getElementById('reactionBar');
+  if(bar.childElementCount)return;
+  REACTIONS.forEach((e,i)=>{
+    const b=document.createElement('button');
+    b.textContent=e;
+    b.onclick=()=>sendReaction(i);
+    bar.appendChild(b);
+  });
+}
+function sendReaction(i){
+  if(!stompClient||!stompClient.connected)return;
+  stompClient.send('/app/room/'+roomCode+'/react',{},JSON.stringify({emote:i}));
+}
+function floatReaction(emote,count){
+  const el=document.createElement('div');
+  el.className='reaction-float';
+  el.style.left=(10+Math.random()*80)+'vw';
+  el.textContent=emote;
+  if(count>1){
+    const c=document.createElement('span');
+    c.className='count';
+    c.textContent='×'+count;
+    el.appendChild(c);
+  }
+  document.body.appendChild(el);
+  setTimeout(()=>el.remove(),1600);
+}
+
+// ── Chat ──
+// Last seq shown per channel; history and live frames can overlap after a reconnect
+const chatSeen={players:-1,spectators:-1};
+function addChatLine(ch,m){
+  if(m.seq<=chatSeen[ch])return;
+  chatSeen[ch]=m.seq;
+  const log=document.getElementById('chatLog-'+ch);
+  const div=document.createElement('div');
+  const who=document.createElement('span');
+  who.className='who';
+  who.textContent=m.name+':';
+  div.appendChild(who);
+  div.appendChild(document.createTextNode(m.text));
+  log.appendChild(div);
+  while(log.childElementCount>50) log.firstChild.remove();
+  log.scrollTop=log.scrollHeight;
+}
+let chatLine=0;
+function sendChat(){
+  const input=document.getElementById('chatInput');
+  const text=input.value.trim();
+  if(!text||!stompClient||!stompClient.connected)return;
+  stompClient.send('/app/room/'+roomCode+'/chat',{},JSON.stringify({text,n:chatLine++}));
+  input.value='';
+}
+function toggleChat(){
+  document.getElementById('chatPanel').classList.toggle('open');
+}
+function switchChatTab(ch){
+  ['players','spectators'].forEach(c=>{
+    document.getElementById('chatTab-'+c).classList.toggle('active',c===ch);
+    document.getElementById('chatLog-'+c).style.display=c===ch?'':'none';
+  });
+}
+
+// ── Royal Ledger (Activity Feed) ──
+function addLedgerItem(text, isRage){
+  const el=document.getElementById('royalLedger');
+  if(!el)return;
+  const div=document.createElement('div');
+  div.className='ledger-item'+(isRage?' rage-glow':'');
+  div.textContent=text;
+  el.appendChild(div);
+  while(el.childElementCount>5) el.firstChild.remove();
+}
+function toggleLedger(){
+  const el=document.getElementById('royalLedger');
+  ledgerCollapsed=!ledgerCollapsed;
+  el.classList.toggle('collapsed',ledgerCollapsed);
+  document.getElementById('ledgerToggle').textContent=ledgerCollapsed?'📜':'✕';
+}
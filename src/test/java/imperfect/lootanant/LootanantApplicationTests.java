@@ -3,7 +3,8 @@ package imperfect.lootanant;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// No warm-up games and no analytics files from a context-load test
+@SpringBootTest(properties = {"lootanant.warmup.enabled=false", "lootanant.analytics.enabled=false"})
 class LootanantApplicationTests {
 
     @Test
@@ -0,0 +1,152 @@
+package imperfect.lootanant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import imperfect.lootanant.model.GameRoom;
+import imperfect.lootanant.service.GameSandbox;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Bytes saved vs CPU spent compressing what one viewer receives during a game.
+ * Not a unit test; run it by hand:
+ *
+ *   ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=imperfect.lootanant.StateFrameCompressionBenchmark
+ *
+ * Frames come from real all-CPU rage games (6 seats) played on a throwaway
+ * GameService, serialized with the same Jackson converter the broker uses and
+ * wrapped in a STOMP MESSAGE envelope. Strategies:
+ *   raw        - no compression
+ *   deflate    - permessage-deflate without context takeover (each frame alone)
+ *   takeover   - permessage-deflate with context takeover (what Tomcat negotiates with browsers)
+ *   takeover>N - takeover, but frames under N bytes go out uncompressed
+ *   preset     - each frame alone with a preset dictionary trained on another game;
+ *                not expressible in RFC 7692, shown only for comparison
+ */
+public class StateFrameCompressionBenchmark {
+
+    private static final int REPS = 50;
+
+    public static void main(String[] args) throws Exception {
+        List<byte[]> training = captureGame();
+        List<byte[]> frames = captureGame();
+        byte[] dictionary = trainDictionary(training, 32 * 1024);
+        long raw = frames.stream().mapToLong(f -> f.length).sum();
+
+        System.out.printf("%d frames, %d bytes raw, avg %d bytes%n%n", frames.size(), raw, raw / frames.size());
+        System.out.printf("%-14s %12s %8s %12s%n", "strategy", "bytes", "ratio", "ns/frame");
+        report("raw", raw, raw, 0);
+        report("deflate", raw, frames, f -> perMessage(f, null));
+        report("takeover", raw, frames, f -> takeover(f, 0));
+        for (int threshold : new int[]{128, 256, 512}) {
+            report("takeover>" + threshold, raw, frames, f -> takeover(f, threshold));
+        }
+        report("preset", raw, frames, f -> perMessage(f, dictionary));
+    }
+
+    private interface Strategy {
+        long compress(List<byte[]> frames);
+    }
+
+    private static void report(String name, long raw, List<byte[]> frames, Strategy strategy) {
+        long bytes = strategy.compress(frames); // warm the path once before timing
+        long start = System.nanoTime();
+        for (int i = 0; i < REPS; i++) bytes = strategy.compress(frames);
+        long nsPerFrame = (System.nanoTime() - start) / ((long) REPS * frames.size());
+        report(name, raw, bytes, nsPerFrame);
+    }
+
+    private static void report(String name, long raw, long bytes, long nsPerFrame) {
+        System.out.printf("%-14s %12d %7.1f%% %12d%n", name, bytes, 100.0 * bytes / raw, nsPerFrame);
+    }
+
+    private static long perMessage(List<byte[]> frames, byte[] dictionary) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        byte[] out = new byte[64 * 1024];
+        long total = 0;
+        for (byte[] frame : frames) {
+            deflater.reset();
+            if (dictionary != null) deflater.setDictionary(dictionary);
+            deflater.setInput(frame);
+            total += deflater.deflate(out, 0, out.length, Deflater.SYNC_FLUSH) - 4; // RFC 7692 drops the 00 00 ff ff tail
+        }
+        deflater.end();
+        return total;
+    }
+
+    private static long takeover(List<byte[]> frames, int threshold) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        byte[] out = new byte[64 * 1024];
+        long total = 0;
+        for (byte[] frame : frames) {
+            if (frame.length < threshold) {
+                total += frame.length;
+                continue;
+            }
+            deflater.setInput(frame);
+            total += deflater.deflate(out, 0, out.length, Deflater.SYNC_FLUSH) - 4;
+        }
+        deflater.end();
+        return total;
+    }
+
+    // zlib uses the tail of the dictionary most, so keep the most recent frames
+    private static byte[] trainDictionary(List<byte[]> frames, int size) {
+        byte[] dict = new byte[size];
+        int pos = size;
+        for (int i = frames.size() - 1; i >= 0 && pos > 0; i--) {
+            byte[] f = frames.get(i);
+            int n = Math.min(f.length, pos);
+            System.arraycopy(f, f.length - n, dict, pos - n, n);
+            pos -= n;
+        }
+        return pos == 0 ? dict : Arrays.copyOfRange(dict, pos, size);
+    }
+
+    // Everything one seat would receive: its own state destination plus the room-wide topics.
+    // The host ID is only known once the room exists, so frames are kept with their destination and filtered after.
+    private static List<byte[]> captureGame() throws Exception {
+        List<Map.Entry<String, byte[]>> sent = new ArrayList<>();
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> {
+            String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            synchronized (sent) {
+                sent.add(Map.entry(destination, stompFrame(destination, (byte[]) message.getPayload())));
+            }
+            return true;
+        });
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+
+        String viewer;
+        try (GameSandbox sandbox = new GameSandbox(template, new ObjectMapper())) {
+            GameRoom room = sandbox.startCpuGame("Viewer", "rage", 6);
+            viewer = room.getHostId();
+            GameSandbox.awaitFinished(room, System.nanoTime() + Duration.ofSeconds(30).toNanos());
+        }
+        List<byte[]> frames = new ArrayList<>();
+        synchronized (sent) {
+            for (Map.Entry<String, byte[]> e : sent) {
+                if (!e.getKey().contains("/state/") || e.getKey().endsWith(viewer)) frames.add(e.getValue());
+            }
+        }
+        return frames;
+    }
+
+    private static byte[] stompFrame(String destination, byte[] body) {
+        String headers = "MESSAGE\ndestination:" + destination + "\ncontent-type:application/json"
+                + "\nsubscription:sub-0\nmessage-id:abcd1234-" + body.length + "\ncontent-length:" + body.length + "\n\n";
+        byte[] head = headers.getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[head.length + body.length + 1];
+        System.arraycopy(head, 0, frame, 0, head.length);
+        System.arraycopy(body, 0, frame, head.length, body.length);
+        return frame;
+    }
+}
@@ -0,0 +1,461 @@
+package imperfect.lootanant;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Drives a locally started node with a traffic capture (lootanant.capture.enabled)
+ * and reports latency, error rate and scheduler lag, so two builds can be compared
+ * on the same real traffic. Not a unit test; run it by hand. All replayed clients
+ * share one address, so start the node with the per-IP limit raised:
+ *
+ *   java -jar target/Lootanant-*.jar --lootanant.ratelimit.ip-per-second=100000 --lootanant.ratelimit.ip-burst=100000
+ *   ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=imperfect.lootanant.TrafficReplayer \
+ *       -Dexec.args="data/capture/traffic-20260101-120000.ndjson.gz --speed 10 --out target/replay-a.json"
+ *
+ *   # divergence between two builds replayed with the same capture and speed
+ *   ... -Dexec.args="--compare target/replay-a.json target/replay-b.json"
+ *
+ * Options: --base (default http://localhost:8080), --speed 1-50 (default 1), --out.
+ * Room, player and ticket aliases (R, P or T plus 12 hex digits) are bound to
+ * the values the local node hands out in REST responses and matchmaking pushes;
+ * a call first waits for the aliases it uses, and counts as unresolved if they are never bound. Only the
+ * client side is time-scaled: turn timers and matchmaking batches on the node run
+ * in real time, so at high speeds more bids land out of turn (status mismatches)
+ * and more sessions close before their match is pushed (unresolved). Compare
+ * reports taken at the same speed.
+ */
+public class TrafficReplayer {
+
+    private static final Pattern ALIAS = Pattern.compile("[RPT][0-9a-f]{12}");
+    private static final Duration BIND_TIMEOUT = Duration.ofSeconds(10);
+    private static final long LAG_SAMPLE_MS = 250;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String base;
+    private final double speed;
+    private final WebSocketStompClient stomp;
+    private final ThreadPoolTaskScheduler stompScheduler = new ThreadPoolTaskScheduler();
+
+    private final Map<String, CompletableFuture<String>> bindings = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<StompSession>> sessions = new ConcurrentHashMap<>();
+    // Matchmaking destination alias -> ID aliases from the captured "matched" pushes, in order
+    private final Map<String, Queue<JsonNode>> pushes = new ConcurrentHashMap<>();
+    private final List<CompletableFuture<?>> inFlight = Collections.synchronizedList(new ArrayList<>());
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final List<Double> lagSamples = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong sessionsOpened = new AtomicLong();
+    private final AtomicLong connectFailures = new AtomicLong();
+    private final AtomicLong subscriptions = new AtomicLong();
+    private final AtomicLong unresolvedSubscriptions = new AtomicLong();
+    private final AtomicLong frames = new AtomicLong();
+
+    private TrafficReplayer(String base, double speed) {
+        this.base = base;
+        this.speed = speed;
+        stompScheduler.setPoolSize(1);
+        stompScheduler.setThreadNamePrefix("replay-heartbeat-");
+        stompScheduler.initialize();
+        this.stomp = new WebSocketStompClient(new StandardWebSocketClient());
+        stomp.setTaskScheduler(stompScheduler);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--") && !args[i].equals("--compare")) options.put(args[i], args[++i]);
+            else positional.add(args[i]);
+        }
+        if (positional.size() == 3 && positional.get(0).equals("--compare")) {
+            compare(Path.of(positional.get(1)), Path.of(positional.get(2)));
+            return;
+        }
+        if (positional.size() != 1) {
+            System.err.println("usage: TrafficReplayer <capture.ndjson.gz> [--base url] [--speed 1-50] [--out report.json]");
+            System.err.println("       TrafficReplayer --compare <a.json> <b.json>");
+            System.exit(2);
+        }
+        double speed = Double.parseDouble(options.getOrDefault("--speed", "1"));
+        if (speed < 1 || speed > 50) throw new IllegalArgumentException("--speed must be between 1 and 50");
+        TrafficReplayer replayer = new TrafficReplayer(options.getOrDefault("--base", "http://localhost:8080"), speed);
+        Map<String, Object> report = replayer.replay(Path.of(positional.get(0)));
+        if (options.containsKey("--out")) {
+            Path out = Path.of(options.get("--out"));
+            if (out.getParent() != null) Files.createDirectories(out.getParent());
+            replayer.mapper.writerWithDefaultPrettyPrinter().writeValue(out.toFile(), report);
+            System.out.println("\nreport written to " + out);
+        }
+        System.exit(0);
+    }
+
+    // ── Replay ──
+
+    private Map<String, Object> replay(Path capture) throws Exception {
+        List<JsonNode> events = read(capture);
+        for (JsonNode e : events) {
+            if ("push".equals(e.path("k").asText())) {
+                pushes.computeIfAbsent(e.get("d").asText(), d -> new ConcurrentLinkedQueue<>()).add(e.get("r"));
+            }
+        }
+        long span = events.isEmpty() ? 0 : events.get(events.size() - 1).get("t").asLong();
+        System.out.printf("%d events over %.1fs, replaying at %.0fx against %s%n",
+                events.size(), span / 1000.0, speed, base);
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(this::sampleLag, 0, LAG_SAMPLE_MS, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        for (JsonNode e : events) {
+            long due = (long) (e.get("t").asLong() / speed);
+            long wait = due - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (wait > 0) Thread.sleep(wait);
+            switch (e.get("k").asText()) {
+                case "http" -> inFlight.add(http(e));
+                case "sub" -> inFlight.add(subscribe(e));
+                case "close" -> close(e);
+                default -> { }
+            }
+        }
+        List<CompletableFuture<?>> pending;
+        synchronized (inFlight) {
+            pending = new ArrayList<>(inFlight);
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get(BIND_TIMEOUT.toSeconds() * 2, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // Stragglers are reported as they stand
+        }
+        sampler.shutdownNow();
+        for (CompletableFuture<StompSession> session : sessions.values()) {
+            session.thenAccept(StompSession::disconnect);
+        }
+        stompScheduler.shutdown();
+        Map<String, Object> report = report(capture, (System.nanoTime() - start) / 1e9);
+        print(report);
+        return report;
+    }
+
+    private CompletableFuture<Void> http(JsonNode e) {
+        String key = e.get("m").asText() + " " + e.get("e").asText();
+        EndpointStats stats = endpoints.computeIfAbsent(key, k -> new EndpointStats());
+        stats.captured.add(e.path("ms").asDouble());
+
+        List<CompletableFuture<String>> needed = new ArrayList<>();
+        e.path("v").forEach(v -> needed.add(resolve(v.asText())));
+        e.path("b").forEach(v -> { if (v.isTextual()) needed.add(resolve(v.asText())); });
+
+        return CompletableFuture.allOf(needed.toArray(CompletableFuture[]::new))
+                .orTimeout(BIND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                .thenCompose(ignored -> {
+                    String path = e.get("e").asText();
+                    for (Iterator<Map.Entry<String, JsonNode>> it = e.path("v").fields(); it.hasNext(); ) {
+                        Map.Entry<String, JsonNode> var = it.next();
+                        path = path.replace("{" + var.getKey() + "}", bound(var.getValue().asText()));
+                    }
+                    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+                            .timeout(Duration.ofSeconds(30));
+                    if ("POST".equals(e.get("m").asText())) {
+                        ObjectNode body = e.has("b") ? e.get("b").deepCopy() : mapper.createObjectNode();
+                        List<String> fields = new ArrayList<>();
+                        body.fieldNames().forEachRemaining(fields::add);
+                        for (String field : fields) {
+                            if (body.get(field).isTextual()) body.put(field, bound(body.get(field).asText()));
+                        }
+                        request.header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+                    }
+                    long sent = System.nanoTime();
+                    return http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString())
+                            .thenAccept(response -> {
+                                stats.latencies.add((System.nanoTime() - sent) / 1e6);
+                                if (response.statusCode() >= 400) stats.errors.incrementAndGet();
+                                if (response.statusCode() != e.get("s").asInt()) stats.mismatches.incrementAndGet();
+                                if (e.has("r") && response.statusCode() < 400) bind(e.get("r"), response.body());
+                            });
+                })
+                .exceptionally(failure -> {
+                    if (!allBound(needed)) stats.unresolved.incrementAndGet();
+                    else stats.errors.incrementAndGet();
+                    return null;
+                });
+    }
+
+    private CompletableFuture<Void> subscribe(JsonNode e) {
+        String alias = e.get("c").asText();
+        String destination = e.get("d").asText();
+        List<CompletableFuture<String>> needed = new ArrayList<>();
+        for (String part : destination.split("/", -1)) needed.add(resolve(part));
+        CompletableFuture<StompSession> session = sessions.computeIfAbsent(alias, a -> connect());
+        return CompletableFuture.allOf(needed.toArray(CompletableFuture[]::new))
+                .orTimeout(BIND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                .thenCombine(session, (ignored, s) -> {
+                    List<String> real = new ArrayList<>();
+                    for (String part : destination.split("/", -1)) real.add(bound(part));
+                    s.subscribe(String.join("/", real), new FrameCounter(destination));
+                    subscriptions.incrementAndGet();
+                    return (Void) null;
+                })
+                .exceptionally(failure -> {
+                    if (!allBound(needed)) unresolvedSubscriptions.incrementAndGet();
+                    return null;
+                });
+    }
+
+    private void close(JsonNode e) {
+        CompletableFuture<StompSession> session = sessions.remove(e.get("c").asText());
+        if (session != null) session.thenAccept(StompSession::disconnect);
+    }
+
+    private CompletableFuture<StompSession> connect() {
+        String url = base.replaceFirst("^http", "ws") + "/stomp";
+        return stomp.connectAsync(url, new StompSessionHandlerAdapter() { })
+                .whenComplete((s, failure) -> {
+                    if (failure == null) sessionsOpened.incrementAndGet();
+                    else connectFailures.incrementAndGet();
+                });
+    }
+
+    // Counts delivered frames; on a matchmaking topic, a "matched" push binds the captured aliases
+    private class FrameCounter implements StompFrameHandler {
+        private final String destinationAlias;
+
+        FrameCounter(String destinationAlias) {
+            this.destinationAlias = destinationAlias;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            frames.incrementAndGet();
+            Queue<JsonNode> expected = pushes.get(destinationAlias);
+            if (expected == null) return;
+            String body = new String((byte[]) payload, StandardCharsets.UTF_8);
+            if (body.contains("\"matched\"") && !expected.isEmpty()) bind(expected.poll(), body);
+        }
+    }
+
+    // ── Aliases ──
+
+    private CompletableFuture<String> resolve(String value) {
+        if (!ALIAS.matcher(value).matches()) return CompletableFuture.completedFuture(value);
+        return bindings.computeIfAbsent(value, a -> new CompletableFuture<>());
+    }
+
+    private String bound(String value) {
+        return resolve(value).join();
+    }
+
+    private boolean allBound(List<CompletableFuture<String>> needed) {
+        return needed.stream().allMatch(f -> f.isDone() && !f.isCompletedExceptionally());
+    }
+
+    private void bind(JsonNode aliases, String responseBody) {
+        try {
+            JsonNode response = mapper.readTree(responseBody);
+            aliases.fields().forEachRemaining(f -> {
+                JsonNode real = response.get(f.getKey());
+                if (real != null && real.isTextual()) {
+                    bindings.computeIfAbsent(f.getValue().asText(), a -> new CompletableFuture<>()).complete(real.asText());
+                }
+            });
+        } catch (IOException e) {
+            // Nothing to learn from a non-JSON body
+        }
+    }
+
+    private void sampleLag() {
+        try {
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(
+                    URI.create(base + "/actuator/metrics/lootanant.admission.scheduler.lag")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                lagSamples.add(mapper.readTree(response.body()).path("measurements").path(0).path("value").asDouble());
+            }
+        } catch (IOException e) {
+            // Node busy or gone; the gap shows up as fewer samples
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ── Report ──
+
+    private static class EndpointStats {
+        final List<Double> latencies = Collections.synchronizedList(new ArrayList<>());
+        final List<Double> captured = Collections.synchronizedList(new ArrayList<>());
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong mismatches = new AtomicLong();
+        final AtomicLong unresolved = new AtomicLong();
+    }
+
+    private Map<String, Object> report(Path capture, double seconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("capture", capture.getFileName().toString());
+        report.put("speed", speed);
+        report.put("seconds", Math.round(seconds * 10) / 10.0);
+        Map<String, Object> byEndpoint = new LinkedHashMap<>();
+        for (String key : new TreeSet<>(endpoints.keySet())) {
+            EndpointStats s = endpoints.get(key);
+            Map<String, Object> e = new LinkedHashMap<>();
+            e.put("calls", s.captured.size());
+            e.put("completed", s.latencies.size());
+            e.put("errors", s.errors.get());
+            e.put("statusMismatches", s.mismatches.get());
+            e.put("unresolved", s.unresolved.get());
+            e.put("p50", percentile(s.latencies, 0.50));
+            e.put("p95", percentile(s.latencies, 0.95));
+            e.put("p99", percentile(s.latencies, 0.99));
+            e.put("capturedP95", percentile(s.captured, 0.95));
+            byEndpoint.put(key, e);
+        }
+        report.put("endpoints", byEndpoint);
+        report.put("stomp", Map.of(
+                "sessions", sessionsOpened.get(),
+                "connectFailures", connectFailures.get(),
+                "subscriptions", subscriptions.get(),
+                "unresolvedSubscriptions", unresolvedSubscriptions.get(),
+                "frames", frames.get()));
+        report.put("schedulerLagMs", Map.of(
+                "samples", lagSamples.size(),
+                "p50", percentile(lagSamples, 0.50),
+                "p95", percentile(lagSamples, 0.95),
+                "max", percentile(lagSamples, 1.0)));
+        return report;
+    }
+
+    private static double percentile(List<Double> values, double p) {
+        List<Double> sorted;
+        synchronized (values) {
+            sorted = new ArrayList<>(values);
+        }
+        if (sorted.isEmpty()) return 0;
+        Collections.sort(sorted);
+        int index = Math.max(0, (int) Math.ceil(p * sorted.size()) - 1);
+        return Math.round(sorted.get(index) * 100) / 100.0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> report) {
+        System.out.printf("%n%-38s %7s %7s %7s %7s %9s %9s %9s %9s%n",
+                "endpoint", "calls", "errors", "status!=", "unres", "p50 ms", "p95 ms", "p99 ms", "capt p95");
+        ((Map<String, Map<String, Object>>) report.get("endpoints")).forEach((key, e) ->
+                System.out.printf("%-38s %7s %7s %7s %7s %9s %9s %9s %9s%n", key, e.get("calls"), e.get("errors"),
+                        e.get("statusMismatches"), e.get("unresolved"), e.get("p50"), e.get("p95"), e.get("p99"),
+                        e.get("capturedP95")));
+        System.out.println("\nstomp " + report.get("stomp"));
+        System.out.println("scheduler lag (ms) " + report.get("schedulerLagMs"));
+    }
+
+    // ── Compare ──
+
+    private static void compare(Path a, Path b) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode left = mapper.readTree(a.toFile());
+        JsonNode right = mapper.readTree(b.toFile());
+        if (left.path("speed").asDouble() != right.path("speed").asDouble()
+                || !left.path("capture").asText().equals(right.path("capture").asText())) {
+            System.out.println("warning: reports differ in capture or speed; deltas are not like for like\n");
+        }
+        System.out.printf("%-38s %9s %9s %8s %8s %8s%n", "endpoint", "p95 a", "p95 b", "p95 chg", "err% a", "err% b");
+        TreeSet<String> keys = new TreeSet<>();
+        left.path("endpoints").fieldNames().forEachRemaining(keys::add);
+        right.path("endpoints").fieldNames().forEachRemaining(keys::add);
+        for (String key : keys) {
+            JsonNode l = left.path("endpoints").path(key);
+            JsonNode r = right.path("endpoints").path(key);
+            double p95a = l.path("p95").asDouble();
+            double p95b = r.path("p95").asDouble();
+            double errA = errorRate(l);
+            double errB = errorRate(r);
+            // Flag latency moves over 20% (ignoring sub-millisecond noise) and error-rate moves over one point
+            boolean diverged = (Math.abs(p95b - p95a) > 1 && Math.abs(p95b - p95a) > 0.2 * Math.max(p95a, p95b))
+                    || Math.abs(errB - errA) > 1;
+            System.out.printf("%-38s %9.2f %9.2f %7.0f%% %7.1f%% %7.1f%% %s%n", key, p95a, p95b,
+                    p95a == 0 ? 0 : 100 * (p95b - p95a) / p95a, errA, errB, diverged ? "!" : "");
+        }
+        JsonNode lagA = left.path("schedulerLagMs");
+        JsonNode lagB = right.path("schedulerLagMs");
+        System.out.printf("%nscheduler lag p95 %.2f -> %.2f ms, max %.2f -> %.2f ms%n",
+                lagA.path("p95").asDouble(), lagB.path("p95").asDouble(),
+                lagA.path("max").asDouble(), lagB.path("max").asDouble());
+        System.out.printf("stomp frames %d -> %d, connect failures %d -> %d%n",
+                left.path("stomp").path("frames").asLong(), right.path("stomp").path("frames").asLong(),
+                left.path("stomp").path("connectFailures").asLong(), right.path("stomp").path("connectFailures").asLong());
+    }
+
+    private static double errorRate(JsonNode endpoint) {
+        long calls = endpoint.path("calls").asLong();
+        return calls == 0 ? 0 : 100.0 * endpoint.path("errors").asLong() / calls;
+    }
+
+    // ── Capture file ──
+
+    private List<JsonNode> read(Path capture) throws IOException {
+        List<JsonNode> events = new ArrayList<>();
+        InputStream in = Files.newInputStream(capture);
+        if (capture.toString().endsWith(".gz")) in = new GZIPInputStream(in);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    events.add(mapper.readTree(line));
+                } catch (IOException e) {
+                    // A torn last line from a node that was killed mid-write
+                }
+            }
+        } catch (EOFException e) {
+            // Capture of a still-running node: everything up to the last sync flush is usable
+        }
+        // Producers race to the queue, so offsets can be slightly out of order
+        events.sort((x, y) -> Long.compare(x.get("t").asLong(), y.get("t").asLong()));
+        return events;
+    }
+}
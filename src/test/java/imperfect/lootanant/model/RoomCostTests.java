@@ -0,0 +1,52 @@
+package imperfect.lootanant.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoomCostTests {
+
+    // Well past period 0, which is what untouched buckets hold
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    void chargesSumAcrossTheWindow() {
+        RoomCost cost = new RoomCost();
+        cost.charge(RoomCost.COMMANDS, 1_000, T0);
+        cost.charge(RoomCost.TASKS, 2_000, T0 + RoomCost.BUCKET_MILLIS);
+        cost.frame(300, T0 + 2 * RoomCost.BUCKET_MILLIS);
+
+        long now = T0 + 2 * RoomCost.BUCKET_MILLIS;
+        assertEquals(1, cost.total(RoomCost.COMMANDS, now));
+        assertEquals(1, cost.total(RoomCost.TASKS, now));
+        assertEquals(3_000, cost.total(RoomCost.LOCK_NANOS, now));
+        assertEquals(1, cost.total(RoomCost.FRAMES, now));
+        assertEquals(300, cost.total(RoomCost.BYTES, now));
+    }
+
+    @Test
+    void bucketsAgeOutOfTheWindow() {
+        RoomCost cost = new RoomCost();
+        cost.charge(RoomCost.COMMANDS, 0, T0);
+        cost.charge(RoomCost.COMMANDS, 0, T0 + RoomCost.BUCKET_MILLIS);
+
+        assertEquals(2, cost.total(RoomCost.COMMANDS, T0 + RoomCost.WINDOW_MILLIS - 1));
+        // The first bucket's period is now a full window old
+        assertEquals(1, cost.total(RoomCost.COMMANDS, T0 + RoomCost.WINDOW_MILLIS));
+        assertEquals(0, cost.total(RoomCost.COMMANDS, T0 + RoomCost.WINDOW_MILLIS + RoomCost.BUCKET_MILLIS));
+    }
+
+    @Test
+    void reusedBucketIsResetBeforeItCounts() {
+        RoomCost cost = new RoomCost();
+        cost.charge(RoomCost.COMMANDS, 500, T0);
+        cost.charge(RoomCost.COMMANDS, 500, T0);
+
+        // Same slot, one lap later
+        long lap = T0 + RoomCost.WINDOW_MILLIS;
+        cost.charge(RoomCost.COMMANDS, 700, lap);
+
+        assertEquals(1, cost.total(RoomCost.COMMANDS, lap));
+        assertEquals(700, cost.total(RoomCost.LOCK_NANOS, lap));
+    }
+}
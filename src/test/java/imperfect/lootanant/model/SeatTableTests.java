@@ -0,0 +1,121 @@
+package imperfect.lootanant.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatTableTests {
+
+    @Test
+    void resetSeatsAConnectedPlayerWithTheDefaultPurse() {
+        SeatTable seats = new SeatTable(SeatTable.MAX_SEATS);
+        seats.setPassed(2, true);
+        seats.setLoan(2, true);
+        seats.setSealedBid(2, 7);
+        seats.reset(2, true);
+
+        assertEquals(12, seats.getCents(2));
+        assertTrue(seats.isConnected(2));
+        assertTrue(seats.isCpu(2));
+        assertFalse(seats.isPassed(2));
+        assertFalse(seats.hasLoan(2));
+        assertFalse(seats.hasSealedBid(2));
+        assertEquals(0, seats.getAbsentSince(2));
+    }
+
+    @Test
+    void passedBitsDriveActiveCounts() {
+        SeatTable seats = table(4);
+        seats.setPassed(1, true);
+        seats.setPassed(3, true);
+
+        assertEquals(2, seats.activeCount(4));
+        assertFalse(seats.onlyActiveBesides(4, 0));
+        seats.setPassed(2, true);
+        assertTrue(seats.onlyActiveBesides(4, 0));
+        // Bits past the table size are ignored
+        seats.setPassed(5, true);
+        assertEquals(1, seats.activeCount(4));
+
+        seats.clearPassed();
+        assertEquals(4, seats.activeCount(4));
+    }
+
+    @Test
+    void removeSeatShiftsLaterSeatsDown() {
+        SeatTable seats = table(4);
+        for (int i = 0; i < 4; i++) seats.setCents(i, 10 + i);
+        seats.setCpu(3, true);
+        seats.setPassed(2, true);
+        seats.setSealedBid(3, 5);
+
+        seats.removeSeat(1, 4);
+
+        assertEquals(10, seats.getCents(0));
+        assertEquals(12, seats.getCents(1));
+        assertEquals(13, seats.getCents(2));
+        assertTrue(seats.isPassed(1));
+        assertFalse(seats.isPassed(2));
+        assertTrue(seats.isCpu(2));
+        assertFalse(seats.isCpu(3));
+        assertTrue(seats.hasSealedBid(2));
+        assertEquals(5, seats.getSealedBid(2));
+        assertEquals(1, seats.cpuCount(3));
+    }
+
+    @Test
+    void humanAndTaxChecksSkipCpus() {
+        SeatTable seats = table(3);
+        seats.setCpu(1, true);
+        seats.setCpu(2, true);
+        seats.setConnected(0, false);
+
+        assertFalse(seats.hasConnectedHuman(3));
+        assertFalse(seats.allHumansTaxConfirmed(3));
+        seats.setTaxConfirmed(0, true);
+        assertTrue(seats.allHumansTaxConfirmed(3));
+        assertEquals(1, seats.taxConfirmedCount(3));
+    }
+
+    @Test
+    void sealedBidOfZeroStillCountsAsSubmitted() {
+        SeatTable seats = table(2);
+        seats.setSealedBid(0, 0);
+        assertTrue(seats.hasSealedBid(0));
+        assertFalse(seats.allSealed(2));
+
+        seats.setSealedBid(1, 4);
+        assertTrue(seats.allSealed(2));
+        seats.clearSealedBids();
+        assertFalse(seats.hasSealedBid(1));
+    }
+
+    @Test
+    void absentSinceFollowsTheConnectedFlag() {
+        SeatTable seats = table(2);
+        long before = System.currentTimeMillis();
+        seats.setConnected(1, false);
+        long since = seats.getAbsentSince(1);
+        assertTrue(since >= before);
+
+        // Repeating the same state keeps the original time
+        seats.setConnected(1, false);
+        assertEquals(since, seats.getAbsentSince(1));
+
+        SeatTable copy = new SeatTable(2);
+        copy.copySeat(seats, 1, 0);
+        assertFalse(copy.isConnected(0));
+        assertEquals(since, copy.getAbsentSince(0));
+
+        seats.setConnected(1, true);
+        assertEquals(0, seats.getAbsentSince(1));
+    }
+
+    private static SeatTable table(int size) {
+        SeatTable seats = new SeatTable(SeatTable.MAX_SEATS);
+        for (int i = 0; i < size; i++) seats.reset(i, false);
+        return seats;
+    }
+}
@@ -0,0 +1,74 @@
+package imperfect.lootanant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import imperfect.lootanant.model.GameEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AnalyticsServiceTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void fullRingShedsNewEventsAndKeepsTheOldest(@TempDir Path dir) throws IOException {
+        // Ring of 4; the writer never runs on its own during the test
+        AnalyticsService analytics = new AnalyticsService(objectMapper, registry, true, dir.toString(),
+                4, 3_600_000, 1 << 20, 60);
+        for (int i = 0; i < 10; i++) analytics.publish(event(i));
+
+        assertEquals(6.0, registry.get("lootanant.analytics.dropped").counter().count());
+        analytics.shutdown();
+
+        List<Map<?, ?>> written = readAll(dir);
+        assertEquals(4, written.size());
+        for (int i = 0; i < 4; i++) assertEquals(i, written.get(i).get("round"));
+        assertEquals(4.0, registry.get("lootanant.analytics.written").counter().count());
+    }
+
+    @Test
+    void disabledServiceWritesNothing(@TempDir Path dir) throws IOException {
+        AnalyticsService analytics = new AnalyticsService(objectMapper, registry, false, dir.toString(),
+                4, 3_600_000, 1 << 20, 60);
+        for (int i = 0; i < 10; i++) analytics.publish(event(i));
+        analytics.shutdown();
+
+        assertEquals(0.0, registry.get("lootanant.analytics.dropped").counter().count());
+        assertEquals(List.of(), readAll(dir));
+    }
+
+    private static GameEvent event(int round) {
+        return new GameEvent(round, "bid", "ROOMA", "classic", round, Map.of("amount", round), null);
+    }
+
+    private List<Map<?, ?>> readAll(Path dir) throws IOException {
+        List<Map<?, ?>> events = new ArrayList<>();
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.sorted().toList();
+        }
+        for (Path file : files) {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) events.add(objectMapper.readValue(line, Map.class));
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,65 @@
+package imperfect.lootanant.service;
+
+import imperfect.lootanant.model.ChatMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChatServiceTests {
+
+    @Test
+    void ringKeepsTheNewestLinesAcrossWraparound() {
+        ChatService.Ring ring = new ChatService.Ring(4);
+        for (int i = 0; i < 6; i++) ring.append("a", i, "Ada", "line" + i);
+
+        List<ChatMessage> history = ring.since(0);
+        assertEquals(List.of(2L, 3L, 4L, 5L), history.stream().map(ChatMessage::seq).toList());
+        assertEquals(List.of("line2", "line3", "line4", "line5"), texts(history));
+    }
+
+    @Test
+    void drainDeliversEachLineOnce() {
+        ChatService.Ring ring = new ChatService.Ring(4);
+        ring.append("a", 0, "Ada", "first");
+        ring.append("a", 1, "Ada", "second");
+        assertEquals(List.of("first", "second"), texts(ring.drain()));
+        assertEquals(List.of(), ring.drain());
+
+        // More lines than the ring holds between flushes: only the newest survive
+        for (int i = 2; i < 9; i++) ring.append("a", i, "Ada", "line" + i);
+        assertEquals(List.of("line5", "line6", "line7", "line8"), texts(ring.drain()));
+    }
+
+    @Test
+    void lateLineMovesInFrontOfTheSendersLaterLines() {
+        ChatService.Ring ring = new ChatService.Ring(8);
+        ring.append("a", 1, "Ada", "a1");
+        ring.append("b", 0, "Bo", "b0");
+        ring.append("a", 2, "Ada", "a2");
+        ring.append("a", 0, "Ada", "a0");
+
+        List<ChatMessage> batch = ring.drain();
+        assertEquals(List.of("a0", "a1", "b0", "a2"), texts(batch));
+        assertEquals(List.of(0L, 1L, 2L, 3L), batch.stream().map(ChatMessage::seq).toList());
+    }
+
+    @Test
+    void deliveredLinesAreNeverReordered() {
+        ChatService.Ring ring = new ChatService.Ring(8);
+        ring.append("a", 1, "Ada", "a1");
+        ring.drain();
+        ring.append("a", 0, "Ada", "a0");
+        assertEquals(List.of("a0"), texts(ring.drain()));
+
+        // Clients without line numbers keep arrival order
+        ring.append("b", -1, "Bo", "x");
+        ring.append("b", -1, "Bo", "y");
+        assertEquals(List.of("x", "y"), texts(ring.drain()));
+    }
+
+    private static List<String> texts(List<ChatMessage> lines) {
+        return lines.stream().map(ChatMessage::text).toList();
+    }
+}
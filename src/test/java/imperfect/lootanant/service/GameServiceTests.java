@@ -0,0 +1,238 @@
+package imperfect.lootanant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import imperfect.lootanant.model.GameRoom;
+import imperfect.lootanant.model.RoomSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.converter.SimpleMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bid, pass and sealed-bid commands on a sandbox GameService with two human
+ * seats, so nothing moves unless the test sends a command. Broadcasts are
+ * recorded with their payload objects instead of being serialized.
+ */
+class GameServiceTests {
+
+    private record Sent(String destination, Object payload) {}
+
+    private final List<Sent> sent = new ArrayList<>();
+    private GameSandbox sandbox;
+    private GameService games;
+
+    @BeforeEach
+    void openSandbox() throws Exception {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> {
+            synchronized (sent) {
+                sent.add(new Sent(SimpMessageHeaderAccessor.getDestination(message.getHeaders()), message.getPayload()));
+            }
+            return true;
+        });
+        template.setMessageConverter(new SimpleMessageConverter());
+        sandbox = new GameSandbox(template, new ObjectMapper());
+        games = sandbox.games();
+    }
+
+    @AfterEach
+    void closeSandbox() {
+        sandbox.close();
+    }
+
+    // ── Classic bidding ──
+
+    @Test
+    void passingLeavesTheBarToTheHighBidder() {
+        GameRoom room = startedRoom("classic");
+        String alice = room.getHostId(), bob = bob(room);
+
+        assertTrue(games.placeBid(room.getRoomCode(), alice, 3));
+        assertFalse(games.placeBid(room.getRoomCode(), alice, 4), "not Alice's turn");
+        assertFalse(games.placeBid(room.getRoomCode(), bob, 3), "must beat the high bid");
+        assertFalse(games.placeBid(room.getRoomCode(), bob, 13), "more than Bob holds");
+        int purity = room.getSnapshot().currentGoldBarPurity();
+
+        assertTrue(games.pass(room.getRoomCode(), bob));
+
+        Map<?, ?> result = roundResult();
+        assertEquals("Alice", result.get("roundWinner"));
+        assertEquals(3, result.get("bidPaid"));
+        RoomSnapshot snap = room.getSnapshot();
+        assertEquals(purity, snap.player(alice).netWorth());
+        assertEquals(12 - 3 + 1, snap.player(alice).cents());
+        assertEquals(12 + 1, snap.player(bob).cents());
+    }
+
+    @Test
+    void outbidPlayerIsRefunded() {
+        GameRoom room = startedRoom("classic");
+        String alice = room.getHostId(), bob = bob(room);
+
+        assertTrue(games.placeBid(room.getRoomCode(), alice, 3));
+        assertTrue(games.placeBid(room.getRoomCode(), bob, 4));
+        assertTrue(games.pass(room.getRoomCode(), alice));
+
+        assertEquals("Bob", roundResult().get("roundWinner"));
+        RoomSnapshot snap = room.getSnapshot();
+        assertEquals(12 + 1, snap.player(alice).cents());
+        assertEquals(12 - 4 + 1, snap.player(bob).cents());
+    }
+
+    @Test
+    void startedRoomCannotBeStartedAgain() {
+        GameRoom room = startedRoom("classic");
+        assertTrue(games.placeBid(room.getRoomCode(), room.getHostId(), 3));
+        RoomSnapshot before = room.getSnapshot();
+
+        assertFalse(games.startGame(room.getRoomCode(), room.getHostId()));
+        assertEquals(before, room.getSnapshot());
+    }
+
+    // ── Snapshot publication ──
+
+    @Test
+    void everyCommandPublishesAFreshSnapshot() {
+        GameRoom room = startedRoom("classic");
+        String alice = room.getHostId(), bob = bob(room);
+        RoomSnapshot before = room.getSnapshot();
+        assertEquals(alice, before.currentTurnPlayerId());
+
+        assertTrue(games.placeBid(room.getRoomCode(), alice, 3));
+
+        RoomSnapshot after = room.getSnapshot();
+        assertNotSame(before, after);
+        // Published snapshots are never mutated
+        assertEquals(0, before.currentHighBid());
+        assertEquals(12, before.player(alice).cents());
+        assertEquals(3, after.currentHighBid());
+        assertEquals(alice, after.currentHighBidderId());
+        assertEquals(bob, after.currentTurnPlayerId());
+        assertEquals(9, after.player(alice).cents());
+        // What was broadcast matches what readers now see
+        assertEquals(3, lastState(room, bob).get("currentHighBid"));
+    }
+
+    @Test
+    void rejectedCommandLeavesTheSnapshotAlone() {
+        GameRoom room = startedRoom("classic");
+        RoomSnapshot before = room.getSnapshot();
+        assertFalse(games.placeBid(room.getRoomCode(), bob(room), 3));
+        assertFalse(games.pass(room.getRoomCode(), "no-such-player"));
+        assertEquals(before, room.getSnapshot());
+    }
+
+    // ── Sealed bidding ──
+
+    @Test
+    void sealedBidIsVisibleOnlyToItsSubmitterUntilResolution() {
+        GameRoom room = startedRoom("sealed");
+        String alice = room.getHostId(), bob = bob(room);
+        clearSent();
+
+        assertTrue(games.placeBid(room.getRoomCode(), alice, 5));
+        assertFalse(games.placeBid(room.getRoomCode(), alice, 6), "one sealed bid per round");
+
+        List<Sent> frames = sentSnapshot();
+        assertEquals(1, frames.size());
+        assertEquals(room.stateDestination(alice), frames.get(0).destination());
+        assertEquals(true, you(frames.get(0).payload()).get("sealedBidSubmitted"));
+
+        RoomSnapshot snap = room.getSnapshot();
+        assertTrue(snap.sealedBidOpen());
+        assertTrue(snap.player(alice).sealedBidSubmitted());
+        assertFalse(snap.player(bob).sealedBidSubmitted());
+        // Nothing is charged until the round resolves
+        assertEquals(12, snap.player(alice).cents());
+    }
+
+    @Test
+    void sealedTieGoesToTheStartingPlayer() {
+        GameRoom room = startedRoom("sealed");
+        String alice = room.getHostId(), bob = bob(room);
+        int purity = room.getSnapshot().currentGoldBarPurity();
+
+        assertFalse(games.placeBid(room.getRoomCode(), bob, 13), "more than Bob holds");
+        assertTrue(games.placeBid(room.getRoomCode(), bob, 5));
+        assertTrue(games.placeBid(room.getRoomCode(), alice, 5));
+
+        Map<?, ?> result = roundResult();
+        assertEquals("Alice", result.get("roundWinner"));
+        assertEquals(5, result.get("bidPaid"));
+        assertEquals(List.of(Map.of("playerName", "Alice", "bid", 5), Map.of("playerName", "Bob", "bid", 5)),
+                result.get("sealedBids"));
+        RoomSnapshot snap = room.getSnapshot();
+        assertEquals(purity, snap.player(alice).netWorth());
+        assertEquals(12 - 5 + 1, snap.player(alice).cents());
+        assertEquals(12 + 1, snap.player(bob).cents());
+    }
+
+    @Test
+    void sealedRoundWithOnlyPassesDiscardsTheBar() {
+        GameRoom room = startedRoom("sealed");
+
+        assertTrue(games.pass(room.getRoomCode(), room.getHostId()));
+        assertTrue(games.pass(room.getRoomCode(), bob(room)));
+
+        Map<?, ?> result = roundResult();
+        assertEquals("none", result.get("roundWinner"));
+        assertEquals(true, result.get("discarded"));
+    }
+
+    // ── Helpers ──
+
+    private GameRoom startedRoom(String mode) {
+        GameRoom room = games.createRoom("Alice", mode, GameSandbox.PACING);
+        games.joinRoom(room.getRoomCode(), "Bob");
+        assertTrue(games.startGame(room.getRoomCode(), room.getHostId()));
+        return room;
+    }
+
+    private static String bob(GameRoom room) {
+        for (RoomSnapshot.PlayerSnapshot p : room.getSnapshot().players()) {
+            if (p.displayName().equals("Bob")) return p.id();
+        }
+        throw new AssertionError("Bob is not seated");
+    }
+
+    private Map<?, ?> roundResult() {
+        List<Sent> results = sentSnapshot().stream().filter(s -> s.destination().endsWith("/roundResult")).toList();
+        assertEquals(1, results.size());
+        return (Map<?, ?>) results.get(0).payload();
+    }
+
+    private Map<?, ?> lastState(GameRoom room, String playerId) {
+        List<Sent> states = sentSnapshot().stream()
+                .filter(s -> s.destination().equals(room.stateDestination(playerId))).toList();
+        return (Map<?, ?>) states.get(states.size() - 1).payload();
+    }
+
+    private static Map<?, ?> you(Object state) {
+        for (Object p : (List<?>) ((Map<?, ?>) state).get("players")) {
+            if (Boolean.TRUE.equals(((Map<?, ?>) p).get("isYou"))) return (Map<?, ?>) p;
+        }
+        throw new AssertionError("no isYou entry");
+    }
+
+    private List<Sent> sentSnapshot() {
+        synchronized (sent) {
+            return new ArrayList<>(sent);
+        }
+    }
+
+    private void clearSent() {
+        synchronized (sent) {
+            sent.clear();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package imperfect.lootanant.service;
+
+import imperfect.lootanant.model.SessionToken;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdentityServiceTests {
+
+    @Test
+    void tokenRoutingPartDecodesWithoutTheMac() {
+        IdentityService identity = new IdentityService("test-secret");
+        String token = identity.issue(123_456, SessionToken.SPECTATOR, 77);
+
+        assertEquals(SessionToken.LENGTH, token.length());
+        long payload = SessionToken.payload(token);
+        assertEquals(123_456, SessionToken.roomId(payload));
+        assertEquals(SessionToken.SPECTATOR, SessionToken.kind(payload));
+        assertEquals(77, SessionToken.slot(payload));
+    }
+
+    @Test
+    void macDependsOnTheKeyAndTheIssuingProcess() {
+        IdentityService first = new IdentityService("test-secret");
+        String token = first.issue(1, SessionToken.PLAYER, 0);
+
+        assertEquals(token, first.issue(1, SessionToken.PLAYER, 0));
+        assertNotEquals(token, first.issue(1, SessionToken.PLAYER, 1));
+        // Same secret, new epoch: the routing part matches, the MAC does not
+        String restarted = new IdentityService("test-secret").issue(1, SessionToken.PLAYER, 0);
+        assertEquals(token.substring(0, 8), restarted.substring(0, 8));
+        assertNotEquals(token, restarted);
+    }
+
+    @Test
+    void slotMustFitTheTokenLayout() {
+        IdentityService identity = new IdentityService("");
+        identity.issue(1, SessionToken.CPU, SessionToken.MAX_SLOT);
+        assertThrows(IllegalArgumentException.class, () -> identity.issue(1, SessionToken.CPU, SessionToken.MAX_SLOT + 1));
+        assertThrows(IllegalArgumentException.class, () -> identity.issue(1, SessionToken.CPU, -1));
+    }
+
+    @Test
+    void malformedTokensHaveNoPayload() {
+        assertEquals(-1, SessionToken.payload(null));
+        assertEquals(-1, SessionToken.payload("short"));
+        assertEquals(-1, SessionToken.payload("AAAA!AAAAAAAAAAA"));
+        assertEquals(-1, SessionToken.payload("AAAAéAAAAAAAAAAA"));
+    }
+
+    @Test
+    void roomIdsAreSequential() {
+        IdentityService identity = new IdentityService("");
+        int first = identity.nextRoomId();
+        assertEquals(first + 1, identity.nextRoomId());
+    }
+}
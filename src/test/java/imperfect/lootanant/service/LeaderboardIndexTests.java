@@ -0,0 +1,89 @@
+package imperfect.lootanant.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaderboardIndexTests {
+
+    @Test
+    void tiedWinsShareACompetitionRank() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        record(index, "Ada", 3, 4);
+        record(index, "Bo", 1, 1);
+        record(index, "Cy", 1, 3);
+        record(index, "Di", 0, 2);
+
+        List<LeaderboardIndex.Standing> top = index.top(10);
+        assertEquals(List.of(
+                new LeaderboardIndex.Standing(1, "Ada", 3, 4),
+                new LeaderboardIndex.Standing(2, "Bo", 1, 1),
+                new LeaderboardIndex.Standing(2, "Cy", 1, 3),
+                new LeaderboardIndex.Standing(4, "Di", 0, 2)), top);
+        assertEquals(2, index.top(2).size());
+        assertEquals(new LeaderboardIndex.Standing(4, "Di", 0, 2), index.standing("Di"));
+        assertNull(index.standing("Nobody"));
+    }
+
+    @Test
+    void ranksMoveAsWinsAreRecorded() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        record(index, "Ada", 2, 2);
+        record(index, "Bo", 1, 1);
+        assertEquals(2, index.standing("Bo").rank());
+
+        record(index, "Bo", 2, 2);
+        assertEquals(1, index.standing("Bo").rank());
+        assertEquals(2, index.standing("Ada").rank());
+    }
+
+    @Test
+    void fenwickTreeGrowsPastItsInitialSize() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        record(index, "Ada", 200, 200);
+        record(index, "Bo", 70, 70);
+        record(index, "Cy", 70, 70);
+        record(index, "Di", 5, 5);
+
+        assertEquals(1, index.standing("Ada").rank());
+        assertEquals(2, index.standing("Bo").rank());
+        assertEquals(2, index.standing("Cy").rank());
+        assertEquals(4, index.standing("Di").rank());
+    }
+
+    @Test
+    void leaderStaysFirstAcrossTheInitialTreeBoundary() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        record(index, "Bo", 1, 1);
+        record(index, "Ada", 62, 62);
+        assertEquals(1, index.standing("Ada").rank());
+
+        // The initial tree holds counts up to 62 wins; 63 forces a rebuild
+        for (int wins = 63; wins <= 64; wins++) {
+            index.record("Ada", true);
+            assertEquals(new LeaderboardIndex.Standing(1, "Ada", wins, wins), index.standing("Ada"));
+            assertEquals(2, index.standing("Bo").rank());
+        }
+    }
+
+    @Test
+    void defaultAndCpuNamesAreNotRanked() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        for (String name : new String[]{"Host", "player", " CPU 3 ", "cpu", "Cpu12", "", "  ", null}) {
+            assertFalse(LeaderboardIndex.rankable(name), String.valueOf(name));
+            index.record(name, true);
+        }
+        assertEquals(0, index.size());
+        assertTrue(LeaderboardIndex.rankable("Cupcake"));
+        assertTrue(LeaderboardIndex.rankable("Hostess"));
+    }
+
+    private static void record(LeaderboardIndex index, String name, int wins, int games) {
+        for (int i = 0; i < games; i++) index.record(name, i < wins);
+    }
+}
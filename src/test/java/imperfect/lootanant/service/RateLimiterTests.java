@@ -0,0 +1,54 @@
+package imperfect.lootanant.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // 1 chat line per second with a burst of 5; the other scopes are effectively unlimited
+    private final RateLimiter limiter = new RateLimiter(registry, 1e6, 1000, 1e6, 1000, 1e6, 1000, 1, 5);
+
+    @Test
+    void burstIsAdmittedThenTheCallerWaits() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(RateLimiter.Scope.CHAT, "alice", "chat"), "call " + i);
+        }
+        long wait = limiter.acquire(RateLimiter.Scope.CHAT, "alice", "chat");
+        assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1), "wait " + wait);
+        assertEquals(1, RateLimiter.retryAfterSeconds(wait));
+        assertEquals(1.0, registry.get("lootanant.ratelimit.rejected")
+                .tag("scope", "chat").tag("endpoint", "chat").counter().count());
+    }
+
+    @Test
+    void bucketsAreKeyedByScopeAndKey() {
+        for (int i = 0; i < 5; i++) limiter.tryAcquire(RateLimiter.Scope.CHAT, "alice", "chat");
+        assertFalse(limiter.tryAcquire(RateLimiter.Scope.CHAT, "alice", "chat"));
+
+        assertTrue(limiter.tryAcquire(RateLimiter.Scope.CHAT, "bob", "chat"));
+        assertTrue(limiter.tryAcquire(RateLimiter.Scope.PLAYER, "alice", "bid"));
+    }
+
+    @Test
+    void missingKeyIsNeverLimited() {
+        for (int i = 0; i < 20; i++) {
+            assertEquals(0, limiter.acquire(RateLimiter.Scope.CHAT, null, "chat"));
+            assertEquals(0, limiter.acquire(RateLimiter.Scope.CHAT, "", "chat"));
+        }
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertEquals(1, RateLimiter.retryAfterSeconds(0));
+        assertEquals(1, RateLimiter.retryAfterSeconds(1));
+        assertEquals(1, RateLimiter.retryAfterSeconds(TimeUnit.SECONDS.toNanos(1)));
+        assertEquals(2, RateLimiter.retryAfterSeconds(TimeUnit.SECONDS.toNanos(1) + 1));
+    }
+}
@@ -0,0 +1,63 @@
+package imperfect.lootanant.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomCodeAllocatorTests {
+
+    private static final String CHARS = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+    private static final int SPACE = 1 << 25;
+
+    @Test
+    void walksTheWholeCodeSpaceWithoutRepeats() {
+        RoomCodeAllocator allocator = new RoomCodeAllocator();
+        long now = 1_000_000;
+        BitSet seen = new BitSet(SPACE);
+        String released = null;
+        for (int i = 0; i < SPACE; i++) {
+            String code = allocator.allocate(now);
+            int index = decode(code);
+            assertFalse(seen.get(index), code);
+            seen.set(index);
+            if (i == 0) {
+                // Released early, but fresh codes still go first
+                released = code;
+                allocator.release(code, now);
+            }
+        }
+        assertEquals(SPACE, seen.cardinality());
+
+        // Space exhausted: the released code comes back only after its quarantine
+        assertNull(allocator.allocate(now + RoomCodeAllocator.QUARANTINE_MILLIS - 1));
+        assertEquals(released, allocator.allocate(now + RoomCodeAllocator.QUARANTINE_MILLIS));
+        assertNull(allocator.allocate(now + RoomCodeAllocator.QUARANTINE_MILLIS));
+    }
+
+    @Test
+    void consecutiveCodesLookUnrelated() {
+        RoomCodeAllocator allocator = new RoomCodeAllocator();
+        String previous = allocator.allocate(0);
+        int samePrefix = 0;
+        for (int i = 0; i < 1000; i++) {
+            String code = allocator.allocate(0);
+            assertEquals(5, code.length());
+            assertTrue(code.chars().allMatch(c -> CHARS.indexOf(c) >= 0), code);
+            if (code.regionMatches(0, previous, 0, 3)) samePrefix++;
+            previous = code;
+        }
+        // A plain counter would share the first three characters almost every time
+        assertTrue(samePrefix < 50, "shared prefixes: " + samePrefix);
+    }
+
+    private static int decode(String code) {
+        int index = 0;
+        for (int i = 0; i < code.length(); i++) index = (index << 5) | CHARS.indexOf(code.charAt(i));
+        return index;
+    }
+}